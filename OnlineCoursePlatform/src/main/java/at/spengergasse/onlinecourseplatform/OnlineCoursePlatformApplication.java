@@ -2,8 +2,10 @@ package at.spengergasse.onlinecourseplatform;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class OnlineCoursePlatformApplication {
 
     public static void main(String[] args) {
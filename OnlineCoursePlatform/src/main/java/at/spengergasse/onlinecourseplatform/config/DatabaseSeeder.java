@@ -1,206 +1,171 @@
 package at.spengergasse.onlinecourseplatform.config;
 
-import at.spengergasse.onlinecourseplatform.domain.Course;
-import at.spengergasse.onlinecourseplatform.domain.Enrollment;
-import at.spengergasse.onlinecourseplatform.domain.Instructor;
-import at.spengergasse.onlinecourseplatform.domain.Student;
-import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
-import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
-import at.spengergasse.onlinecourseplatform.persistence.InstructorRepository;
-import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.config.seeding.BatchInserter;
+import at.spengergasse.onlinecourseplatform.config.seeding.CsvBulkLoader;
+import at.spengergasse.onlinecourseplatform.config.seeding.DatasetGenerator;
+import at.spengergasse.onlinecourseplatform.config.seeding.KeySet;
+import at.spengergasse.onlinecourseplatform.config.seeding.PartitionedLoader;
+import at.spengergasse.onlinecourseplatform.config.seeding.RowSink;
+import at.spengergasse.onlinecourseplatform.config.seeding.SeedMode;
+import at.spengergasse.onlinecourseplatform.config.seeding.SeedResult;
+import at.spengergasse.onlinecourseplatform.config.seeding.SeederProperties;
+import at.spengergasse.onlinecourseplatform.persistence.IdBlockAllocator;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
 
 @Configuration
+@EnableConfigurationProperties(SeederProperties.class)
 @RequiredArgsConstructor
 @Slf4j
 public class DatabaseSeeder {
 
-    private final StudentRepository studentRepository;
-    private final InstructorRepository instructorRepository;
-    private final CourseRepository courseRepository;
-    private final EnrollmentRepository enrollmentRepository;
+    private static final List<String> STUDENT_COLUMNS = List.of("id", "first_name", "last_name", "email",
+            "date_of_birth", "phone_number", "address", "registration_date");
+    private static final List<String> INSTRUCTOR_COLUMNS = List.of("id", "first_name", "last_name", "email",
+            "department", "phone_number", "office_location", "hire_date", "biography");
+    private static final List<String> COURSE_COLUMNS = List.of("id", "name", "description", "instructor_id");
+    private static final List<String> ENROLLMENT_COLUMNS = List.of("id", "student_id", "course_id", "grade");
 
-    private final Random random = new Random();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SeederProperties properties;
+    private final CsvBulkLoader bulkLoader;
+    private final IdBlockAllocator idAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Bean
     public CommandLineRunner loadData() {
         return args -> {
+            if (!properties.isEnabled()) {
+                return;
+            }
             // Check if data already exists
-            if (studentRepository.count() > 0) {
+            Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+            if (existing != null && existing > 0) {
                 log.info("Database already contains data. Skipping seeding.");
                 return;
             }
-
-            log.info("Starting database seeding...");
-            long startTime = System.currentTimeMillis();
-
-            // Generate data
-            List<Student> students = generateStudents(50000);
-            List<Instructor> instructors = generateInstructors(500);
-            List<Course> courses = generateCourses(1000, instructors);
-            List<Enrollment> enrollments = generateEnrollments(98500, students, courses);
-
-            log.info("Data generation completed in {} ms", System.currentTimeMillis() - startTime);
-            log.info("Total records: {} (Students: {}, Instructors: {}, Courses: {}, Enrollments: {})",
-                    students.size() + instructors.size() + courses.size() + enrollments.size(),
-                    students.size(), instructors.size(), courses.size(), enrollments.size());
+            seed();
         };
     }
 
-    @Transactional
-    protected List<Student> generateStudents(int count) {
-        log.info("Generating {} students...", count);
-        List<Student> students = new ArrayList<>();
-        int batchSize = 1000;
-
-        String[] firstNames = {"Emma", "Liam", "Olivia", "Noah", "Ava", "Ethan", "Sophia", "Mason",
-                "Isabella", "William", "Mia", "James", "Charlotte", "Benjamin", "Amelia"};
-        String[] lastNames = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
-                "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson"};
-        String[] cities = {"Vienna", "Salzburg", "Graz", "Innsbruck", "Linz", "Klagenfurt", "Villach", "Wels"};
-
-        for (int i = 0; i < count; i++) {
-            Student student = Student.builder()
-                    .firstName(firstNames[random.nextInt(firstNames.length)] + i)
-                    .lastName(lastNames[random.nextInt(lastNames.length)])
-                    .email("student" + i + "@university.edu")
-                    .dateOfBirth(LocalDate.now().minusYears(18 + random.nextInt(25)))
-                    .phoneNumber("+43" + (600000000 + random.nextInt(99999999)))
-                    .address(cities[random.nextInt(cities.length)] + " Street " + (i % 1000))
-                    .registrationDate(LocalDate.now().minusDays(random.nextInt(1095)))
-                    .build();
-
-            students.add(student);
-
-            // Save in batches
-            if (i > 0 && i % batchSize == 0) {
-                studentRepository.saveAll(students);
-                students.clear();
-                log.info("Saved {} students", i);
+    /**
+     * Generate the dataset described by the {@code seeder.*} properties into empty tables.
+     * Ids are reserved as one block per table up front, so equal settings produce equal rows.
+     */
+    public SeedResult seed() {
+        DatasetGenerator generator = new DatasetGenerator(properties);
+        int parallelism = properties.effectiveParallelism();
+        log.info("Starting database seeding (scale {}, seed {}, {} mode) with {} workers...",
+                properties.getScale(), properties.getSeed(), properties.getMode(), parallelism);
+        long startTime = System.currentTimeMillis();
+
+        KeySet studentIds = reserve("students", generator.studentCount());
+        KeySet instructorIds = reserve("instructors", generator.instructorCount());
+        KeySet courseIds = reserve("courses", generator.courseCount());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("seeder-", 1).factory())) {
+            PartitionedLoader loader = new PartitionedLoader(executor, transactionTemplate,
+                    properties.getChunkSize(), properties.getSeed());
+            long[] enrollmentOffsets = enrollmentOffsets(generator, loader.chunkSize());
+            long firstEnrollmentId = idAllocator.reserve("enrollments",
+                    enrollmentOffsets[enrollmentOffsets.length - 1]);
+
+            // Students and instructors are independent; courses need instructors,
+            // enrollments need both students and courses to be committed.
+            // Rows go straight from the generator to the database.
+            CompletableFuture<Long> students = loader.load("students", generator.studentCount(),
+                    (from, to, randoms) -> write("students", STUDENT_COLUMNS, from, to,
+                            i -> generator.student(i, studentIds.get(i), randoms.apply(i))));
+            CompletableFuture<Long> instructors = loader.load("instructors", generator.instructorCount(),
+                    (from, to, randoms) -> write("instructors", INSTRUCTOR_COLUMNS, from, to,
+                            i -> generator.instructor(i, instructorIds.get(i), randoms.apply(i))));
+            CompletableFuture<Long> courses = instructors.thenCompose(ignored ->
+                    loader.load("courses", generator.courseCount(),
+                            (from, to, randoms) -> write("courses", COURSE_COLUMNS, from, to,
+                                    i -> generator.course(i, courseIds.get(i), randoms.apply(i), instructorIds))));
+            // Enrollments are generated per student, so their chunks run over the students
+            CompletableFuture<Long> enrollments = students.thenCombine(courses, (s, c) -> s)
+                    .thenCompose(ignored -> loader.load("enrollments", generator.studentCount(),
+                            (from, to, randoms) -> writeEnrollments(generator, from, to, randoms,
+                                    firstEnrollmentId + enrollmentOffsets[from / loader.chunkSize()], studentIds, courseIds)));
+
+            SeedResult result = new SeedResult(students.join(), instructors.join(), courses.join(), enrollments.join());
+            for (String table : List.of("students", "instructors", "courses", "enrollments")) {
+                eventPublisher.publishEvent(new TableChangedEvent(table));
             }
-        }
 
-        // Save remaining
-        if (!students.isEmpty()) {
-            studentRepository.saveAll(students);
+            log.info("Data generation completed in {} ms", System.currentTimeMillis() - startTime);
+            log.info("Total records: {} (Students: {}, Instructors: {}, Courses: {}, Enrollments: {})",
+                    result.total(), result.students(), result.instructors(), result.courses(), result.enrollments());
+            return result;
         }
+    }
 
-        log.info("Completed generating {} students", count);
-        return new ArrayList<>(studentRepository.findAll());
+    private KeySet reserve(String table, int count) {
+        return KeySet.range(idAllocator.reserve(table, count), count);
     }
 
-    @Transactional
-    protected List<Instructor> generateInstructors(int count) {
-        log.info("Generating {} instructors...", count);
-        List<Instructor> instructors = new ArrayList<>();
-        String[] departments = {"Computer Science", "Mathematics", "Physics", "Chemistry",
-                "Biology", "Engineering", "Business", "Arts", "History", "Literature"};
-        String[] firstNames = {"John", "Sarah", "Michael", "Emily", "David", "Jessica", "Robert",
-                "Lisa", "Daniel", "Jennifer", "Thomas", "Maria", "Christopher", "Anna"};
-        String[] lastNames = {"Anderson", "Taylor", "Thomas", "Moore", "Jackson", "Martin", "Lee",
-                "Perez", "Thompson", "White", "Harris", "Clark", "Lewis", "Walker"};
-        String[] buildings = {"Building A", "Building B", "Building C", "Main Campus", "North Wing", "South Wing"};
-
-        for (int i = 0; i < count; i++) {
-            Instructor instructor = Instructor.builder()
-                    .firstName(firstNames[random.nextInt(firstNames.length)])
-                    .lastName(lastNames[random.nextInt(lastNames.length)] + i)
-                    .email("instructor" + i + "@university.edu")
-                    .department(departments[random.nextInt(departments.length)])
-                    .phoneNumber("+43" + (660000000 + random.nextInt(99999999)))
-                    .officeLocation(buildings[random.nextInt(buildings.length)] + " Room " + (100 + i % 900))
-                    .hireDate(LocalDate.now().minusYears(random.nextInt(20)))
-                    .biography("Experienced professor with " + (1 + random.nextInt(25)) + " years in academia. " +
-                            "Specializes in various aspects of " + departments[i % departments.length] + ".")
-                    .build();
-
-            instructors.add(instructor);
+    /**
+     * Offset of the first enrollment of every chunk of students, so chunks can be written in any order.
+     * The last element is the total number of enrollments.
+     */
+    private static long[] enrollmentOffsets(DatasetGenerator generator, int chunkSize) {
+        int students = generator.studentCount();
+        int chunks = (students + chunkSize - 1) / chunkSize;
+        long[] offsets = new long[chunks + 1];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            offsets[chunk + 1] = offsets[chunk] +
+                    generator.enrollmentCount(chunk * chunkSize, Math.min(students, (chunk + 1) * chunkSize));
         }
-
-        instructorRepository.saveAll(instructors);
-        log.info("Completed generating {} instructors", count);
-        return new ArrayList<>(instructorRepository.findAll());
+        return offsets;
     }
 
-    @Transactional
-    protected List<Course> generateCourses(int count, List<Instructor> instructors) {
-        log.info("Generating {} courses...", count);
-        List<Course> courses = new ArrayList<>();
-        String[] subjects = {"Introduction to", "Advanced", "Fundamentals of", "Applied",
-                "Theoretical", "Practical", "Modern", "Classical"};
-        String[] topics = {"Programming", "Algorithms", "Data Structures", "Web Development",
-                "Machine Learning", "Database Systems", "Networks", "Security",
-                "Software Engineering", "AI", "Cloud Computing", "Mobile Development"};
-
-        for (int i = 0; i < count; i++) {
-            Course course = new Course();
-            course.setName(subjects[random.nextInt(subjects.length)] + " " +
-                    topics[random.nextInt(topics.length)] + " " + (i + 1));
-            course.setDescription("This is a comprehensive course covering various aspects of the subject. " +
-                    "Students will learn through lectures, assignments, and projects. " +
-                    "Course code: CS-" + (1000 + i));
-
-            // Assign random instructor
-            Instructor instructor = instructors.get(random.nextInt(instructors.size()));
-            course.setInstructorId(instructor.getId());
-            course.setVersion(0L);
-
-            courses.add(course);
+    /**
+     * Open the sink of one chunk; rows never carry a version, it always starts at 0
+     */
+    private RowSink open(String table, List<String> columns) {
+        if (properties.getMode() == SeedMode.BULK) {
+            return bulkLoader.open(table, columns);
         }
-
-        courseRepository.saveAll(courses);
-        log.info("Completed generating {} courses", count);
-        return new ArrayList<>(courseRepository.findAll());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ", version) VALUES (" +
+                "?, ".repeat(columns.size()) + "0)";
+        return new BatchInserter(jdbcTemplate, table, sql, properties.getBatchSize());
     }
 
-    @Transactional
-    protected List<Enrollment> generateEnrollments(int count, List<Student> students, List<Course> courses) {
-        log.info("Generating {} enrollments...", count);
-        List<Enrollment> enrollments = new ArrayList<>();
-        int batchSize = 1000;
-
-        for (int i = 0; i < count; i++) {
-            Enrollment enrollment = new Enrollment();
-
-            // Random student and course
-            Student student = students.get(random.nextInt(students.size()));
-            Course course = courses.get(random.nextInt(courses.size()));
-
-            enrollment.setStudentId(student.getId());
-            enrollment.setCourseId(course.getId());
-
-            // Random grade between 1.0 and 5.0 (or null for in-progress courses)
-            if (random.nextBoolean()) {
-                enrollment.setGrade(1.0 + (random.nextDouble() * 4.0));
-            }
-
-            enrollment.setVersion(0L);
-            enrollments.add(enrollment);
-
-            // Save in batches
-            if (i > 0 && i % batchSize == 0) {
-                enrollmentRepository.saveAll(enrollments);
-                enrollments.clear();
-                log.info("Saved {} enrollments", i);
+    private long write(String table, List<String> columns, int from, int to, IntFunction<Object[]> rows) {
+        try (RowSink sink = open(table, columns)) {
+            for (int i = from; i < to; i++) {
+                sink.add(rows.apply(i));
             }
+            return sink.finish();
         }
+    }
 
-        // Save remaining
-        if (!enrollments.isEmpty()) {
-            enrollmentRepository.saveAll(enrollments);
+    private long writeEnrollments(DatasetGenerator generator, int from, int to, IntFunction<SplittableRandom> randoms,
+                                  long firstId, KeySet studentIds, KeySet courseIds) {
+        try (RowSink sink = open("enrollments", ENROLLMENT_COLUMNS)) {
+            long nextId = firstId;
+            for (int s = from; s < to; s++) {
+                nextId += generator.enrollments(s, nextId, randoms.apply(s), studentIds, courseIds, sink::add);
+            }
+            return sink.finish();
         }
-
-        log.info("Completed generating {} enrollments", count);
-        return new ArrayList<>(enrollmentRepository.findAll());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects generated rows and writes them to one table through JDBC batches.
+ * With {@code rewriteBatchedStatements=true} the MySQL driver turns every batch
+ * into a single multi-row INSERT.
+ */
+@Slf4j
+public class BatchInserter implements RowSink {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String entityName;
+    private final String sql;
+    private final int batchSize;
+    private final List<Object[]> batch;
+    private final long startTime = System.nanoTime();
+
+    private long rowCount;
+
+    public BatchInserter(JdbcTemplate jdbcTemplate, String entityName, String sql, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityName = entityName;
+        this.sql = sql;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Add a row; the values must match the placeholders of the INSERT statement
+     */
+    @Override
+    public void add(Object... row) {
+        batch.add(row);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the remaining rows and log the throughput of this inserter
+     */
+    @Override
+    public long finish() {
+        flush();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        log.debug("Inserted {} {} in {} ms ({} rows/s)",
+                rowCount, entityName, elapsedMillis, rowCount * 1000 / elapsedMillis);
+        return rowCount;
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+        rowCount += batch.size();
+        batch.clear();
+        log.debug("Saved {} {}", rowCount, entityName);
+    }
+}
@@ -0,0 +1,497 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.IdBlockAllocator;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Column;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingest of CSV files, bypassing per-row INSERTs entirely.
+ * Files use a header line with the column names followed by rows in the {@link CsvFormat}.
+ * MySQL reads them with {@code LOAD DATA LOCAL INFILE}, H2 with {@code CSVREAD}. The files are written to
+ * {@code seeder.bulk-directory}, the only directory the MySQL driver may send to the server
+ * ({@code allowLoadLocalInfileInPath}).
+ * Throughput is logged and published as the {@code seeder.ingest.*} metrics.
+ * <p>
+ * Uploaded files are checked record by record before loading, like grade imports: values have to parse
+ * as the column's type and meet the constraints of the entity, enrollments have to refer to existing students
+ * and courses. Records failing a check are left out and reported, the others are loaded as they were parsed,
+ * so an empty value is loaded as null on every database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CsvBulkLoader {
+
+    public static final int CHECK_BATCH_SIZE = 1000;
+    public static final int MAX_REPORTED_REJECTS = 1000;
+
+    private static final Map<String, Set<String>> COLUMNS = Map.of(
+            "students", Set.of("id", "first_name", "last_name", "email", "date_of_birth", "phone_number",
+                    "address", "registration_date", "version"),
+            "instructors", Set.of("id", "first_name", "last_name", "email", "department", "phone_number",
+                    "office_location", "hire_date", "biography", "version"),
+            "courses", Set.of("id", "name", "description", "instructor_id", "capacity", "version"),
+            "enrollments", Set.of("id", "student_id", "course_id", "grade", "version"));
+
+    private static final Map<String, Class<?>> ENTITIES = Map.of("students", Student.class,
+            "instructors", Instructor.class, "courses", Course.class, "enrollments", Enrollment.class);
+
+    // Foreign key columns and the tables they refer to
+    private static final Map<String, Map<String, String>> REFERENCES = Map.of(
+            "enrollments", Map.of("student_id", "students", "course_id", "courses"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final IdBlockAllocator idAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final SeederProperties properties;
+
+    private volatile SeedDialect dialect;
+
+    /**
+     * Open a sink that spools rows into a temporary CSV file and ingests it on {@link RowSink#finish()};
+     * the file is deleted when the sink is closed
+     */
+    public RowSink open(String table, List<String> columns) {
+        validate(table, columns);
+        try {
+            Path file = bulkFile(table + "-");
+            return new CsvFileSink(this, table, columns, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ingest an uploaded CSV file whose header names the columns.
+     * Rows without an id get one from the table's id generator; invalid rows are rejected.
+     *
+     * @throws IllegalArgumentException if the header names unknown columns or misses required ones
+     */
+    public IngestResult importCsv(String table, InputStream csv) throws IOException {
+        Path upload = Files.createTempFile("import-" + table + "-", ".csv");
+        Path checked = null;
+        Path numbered = null;
+        try {
+            Files.copy(csv, upload, StandardCopyOption.REPLACE_EXISTING);
+            List<String> columns = readHeader(upload);
+            validate(table, columns);
+            checked = bulkFile("import-" + table + "-");
+            Check check = new Check(table, columns);
+            check.run(upload, checked);
+            if (columns.contains("id")) {
+                IngestResult result = ingest(table, columns, checked).withRejects(check.rejected, check.rejects);
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                if (maxId != null) {
+                    idAllocator.advancePast(table, maxId);
+                }
+                eventPublisher.publishEvent(new TableChangedEvent(table));
+                return result;
+            }
+            numbered = bulkFile("import-" + table + "-");
+            List<String> withId = new ArrayList<>(columns);
+            withId.add(0, "id");
+            writeWithIds(table, checked, numbered, withId);
+            IngestResult result = ingest(table, withId, numbered).withRejects(check.rejected, check.rejects);
+            eventPublisher.publishEvent(new TableChangedEvent(table));
+            return result;
+        } finally {
+            Files.deleteIfExists(upload);
+            if (checked != null) {
+                Files.deleteIfExists(checked);
+            }
+            if (numbered != null) {
+                Files.deleteIfExists(numbered);
+            }
+        }
+    }
+
+    /**
+     * Load a CSV file with a header line into a table; rows without a version start at version 0
+     */
+    public IngestResult ingest(String table, List<String> columns, Path file) {
+        String columnList = String.join(", ", columns);
+        String path = file.toAbsolutePath().toString().replace("\\", "/").replace("'", "''");
+        boolean setVersion = !columns.contains("version");
+
+        String sql = switch (dialect()) {
+            case MYSQL -> "LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE " + table +
+                    " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY ''" +
+                    " LINES TERMINATED BY '\\n' IGNORE 1 LINES (" + columnList + ")" +
+                    (setVersion ? " SET version = 0" : "");
+            case H2 -> "INSERT INTO " + table + " (" + columnList + (setVersion ? ", version" : "") + ")" +
+                    " SELECT *" + (setVersion ? ", 0" : "") +
+                    " FROM CSVREAD('" + path + "', NULL, 'charset=UTF-8 null=" + CsvFormat.NULL + "')";
+            case OTHER -> throw new UnsupportedOperationException("Bulk load is only supported on MySQL and H2");
+        };
+
+        long startTime = System.nanoTime();
+        long rows = jdbcTemplate.update(sql);
+        long elapsed = System.nanoTime() - startTime;
+
+        IngestResult result = IngestResult.of(table, rows, elapsed);
+        meterRegistry.counter("seeder.ingest.rows", "table", table).increment(rows);
+        Timer.builder("seeder.ingest.time").tag("table", table).register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.debug("Ingested {} {} in {} ms ({} rows/s)", rows, table, result.millis(), result.rowsPerSecond());
+        return result;
+    }
+
+    private Path bulkFile(String prefix) throws IOException {
+        return Files.createTempFile(Files.createDirectories(properties.getBulkDirectory()), prefix, ".csv");
+    }
+
+    private SeedDialect dialect() {
+        if (dialect == null) {
+            dialect = SeedDialect.detect(jdbcTemplate);
+        }
+        return dialect;
+    }
+
+    private static List<String> readHeader(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || header.isBlank()) {
+                throw new IllegalArgumentException("CSV file has no header line");
+            }
+            return Arrays.stream(header.split(","))
+                    .map(column -> column.strip().replace("\"", "").toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Copy a CSV file, prefixing every record with an id reserved for it
+     */
+    private void writeWithIds(String table, Path source, Path target, List<String> columns) throws IOException {
+        long[] count = new long[1];
+        forEachRecord(source, (record, line) -> count[0]++);
+        long[] nextId = {idAllocator.reserve(table, count[0])};
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+            forEachRecord(source, (record, line) -> {
+                try {
+                    writer.write(nextId[0]++ + "," + record);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Visit the records after the header with the line they start on; quoted values may span several lines
+     */
+    private static void forEachRecord(Path file, ObjLongConsumer<String> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            StringBuilder record = new StringBuilder();
+            boolean quoted = false;
+            String line;
+            long lineNumber = 1;
+            long firstLine = 2;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (record.isEmpty()) {
+                    firstLine = lineNumber;
+                } else {
+                    record.append('\n');
+                }
+                record.append(line);
+                quoted ^= line.chars().filter(c -> c == '"').count() % 2 == 1;
+                if (!quoted) {
+                    if (!record.toString().isBlank()) {
+                        consumer.accept(record.toString(), firstLine);
+                    }
+                    record.setLength(0);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("CSV file ends inside a quoted value");
+            }
+        }
+    }
+
+    private static void validate(String table, List<String> columns) {
+        Set<String> allowed = COLUMNS.get(table);
+        if (allowed == null) {
+            throw new IllegalArgumentException("Unknown table: " + table);
+        }
+        for (String column : columns) {
+            if (!allowed.contains(column)) {
+                throw new IllegalArgumentException("Unknown column for " + table + ": " + column);
+            }
+        }
+        if (columns.isEmpty() || columns.stream().distinct().count() != columns.size()) {
+            throw new IllegalArgumentException("Columns must be unique and not empty");
+        }
+    }
+
+    /**
+     * Values of a record; quotes are removed, unquoted {@value CsvFormat#NULL} and empty values are {@code null}
+     */
+    private static List<String> fields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (inQuotes) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field(field, quoted));
+        return fields;
+    }
+
+    private static String field(StringBuilder field, boolean quoted) {
+        if (quoted) {
+            return field.toString();
+        }
+        String value = field.toString().strip();
+        return value.isEmpty() || CsvFormat.NULL.equals(value) ? null : value;
+    }
+
+    private static Object parse(Class<?> type, String value) {
+        if (value == null || type == String.class) {
+            return value;
+        }
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == Double.class) {
+            double number = Double.parseDouble(value);
+            if (!Double.isFinite(number)) {
+                throw new NumberFormatException("Not a finite number: " + value);
+            }
+            return number;
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        throw new IllegalStateException("Unsupported column type: " + type);
+    }
+
+    private static String property(String column) {
+        StringBuilder property = new StringBuilder();
+        for (String part : column.split("_")) {
+            property.append(property.isEmpty() ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+        }
+        return property.toString();
+    }
+
+    /**
+     * Checks the records of one upload and writes the parsed values of the valid ones; references are looked up
+     * {@value #CHECK_BATCH_SIZE} records at a time
+     */
+    private final class Check {
+
+        private final Class<?> entity;
+        private final List<String> columns;
+        private final List<Class<?>> types = new ArrayList<>();
+        private final Map<String, String> references;
+        // Columns the database does not allow to be null
+        private final Set<String> notNull = new HashSet<>();
+        private final List<Object[]> batch = new ArrayList<>(CHECK_BATCH_SIZE);
+        private final List<Long> batchLines = new ArrayList<>(CHECK_BATCH_SIZE);
+        // Records as uploaded, for the rejects
+        private final List<String> batchRecords = new ArrayList<>(CHECK_BATCH_SIZE);
+        private final List<IngestResult.Reject> rejects = new ArrayList<>();
+        private long rejected;
+
+        Check(String table, List<String> columns) {
+            this.entity = ENTITIES.get(table);
+            this.columns = columns;
+            this.references = REFERENCES.getOrDefault(table, Map.of());
+            for (String column : columns) {
+                try {
+                    types.add(entity.getDeclaredField(property(column)).getType());
+                } catch (NoSuchFieldException e) {
+                    throw new IllegalStateException("No property for column " + table + "." + column, e);
+                }
+            }
+            List<String> missing = new ArrayList<>();
+            for (String column : COLUMNS.get(table)) {
+                if (column.equals("id") || column.equals("version")) {
+                    continue;
+                }
+                Column mapping;
+                try {
+                    mapping = entity.getDeclaredField(property(column)).getAnnotation(Column.class);
+                } catch (NoSuchFieldException e) {
+                    throw new IllegalStateException("No property for column " + table + "." + column, e);
+                }
+                if (mapping != null && !mapping.nullable()) {
+                    notNull.add(column);
+                }
+                boolean required = notNull.contains(column)
+                        || !validator.validateValue(entity, property(column), null).isEmpty();
+                if (required && !columns.contains(column)) {
+                    missing.add(column);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Missing required columns for " + table + ": " +
+                        missing.stream().sorted().collect(Collectors.joining(", ")));
+            }
+        }
+
+        void run(Path source, Path target) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                writer.write(String.join(",", columns));
+                writer.write('\n');
+                forEachRecord(source, (record, line) -> {
+                    add(line, record);
+                    if (batch.size() == CHECK_BATCH_SIZE) {
+                        flush(writer);
+                    }
+                });
+                flush(writer);
+            }
+        }
+
+        private void add(long line, String record) {
+            List<String> fields = fields(record);
+            if (fields.size() != columns.size()) {
+                reject(line, record, "Expected " + columns.size() + " values but found " + fields.size());
+                return;
+            }
+            Object[] values = new Object[fields.size()];
+            List<String> violations = new ArrayList<>();
+            for (int i = 0; i < values.length; i++) {
+                String column = columns.get(i);
+                try {
+                    values[i] = parse(types.get(i), fields.get(i));
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    violations.add(column + ": not a valid value: " + fields.get(i));
+                    continue;
+                }
+                for (ConstraintViolation<?> violation : validator.validateValue(entity, property(column), values[i])) {
+                    violations.add(column + ": " + violation.getMessage());
+                }
+                if (values[i] == null && notNull.contains(column)) {
+                    violations.add(column + ": is required");
+                }
+            }
+            if (!violations.isEmpty()) {
+                reject(line, record, violations.stream().sorted().collect(Collectors.joining(", ")));
+                return;
+            }
+            batch.add(values);
+            batchLines.add(line);
+            batchRecords.add(record);
+        }
+
+        private void flush(BufferedWriter writer) {
+            Map<String, Set<Long>> existing = new HashMap<>();
+            references.forEach((column, referenced) -> {
+                int index = columns.indexOf(column);
+                Set<Long> ids = new HashSet<>();
+                batch.forEach(values -> ids.add((Long) values[index]));
+                existing.put(column, existingIds(referenced, ids));
+            });
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    String missing = missingReference(batch.get(i), existing);
+                    if (missing != null) {
+                        reject(batchLines.get(i), batchRecords.get(i), missing);
+                    } else {
+                        writer.write(CsvFormat.row(batch.get(i)));
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            batch.clear();
+            batchLines.clear();
+            batchRecords.clear();
+        }
+
+        private String missingReference(Object[] values, Map<String, Set<Long>> existing) {
+            for (Map.Entry<String, String> reference : references.entrySet()) {
+                Object id = values[columns.indexOf(reference.getKey())];
+                if (!existing.get(reference.getKey()).contains(id)) {
+                    return reference.getKey() + ": no row in " + reference.getValue() + " with id " + id;
+                }
+            }
+            return null;
+        }
+
+        private Set<Long> existingIds(String table, Set<Long> ids) {
+            if (ids.isEmpty()) {
+                return Set.of();
+            }
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id IN (" +
+                    placeholders + ")", Long.class, ids.toArray()));
+        }
+
+        private void reject(long line, String record, String reason) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(new IngestResult.Reject(line, record, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Streams rows into a temporary CSV file and hands it to the {@link CsvBulkLoader} when finished.
+ * Only the write buffer is held in memory. Closing the sink closes the writer and deletes the file,
+ * also when adding rows or loading them failed.
+ */
+class CsvFileSink implements RowSink {
+
+    private final CsvBulkLoader loader;
+    private final String table;
+    private final List<String> columns;
+    private final Path file;
+    private final BufferedWriter writer;
+
+    CsvFileSink(CsvBulkLoader loader, String table, List<String> columns, Path file) throws IOException {
+        this.loader = loader;
+        this.table = table;
+        this.columns = columns;
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(String.join(",", columns));
+        writer.write('\n');
+    }
+
+    @Override
+    public void add(Object... row) {
+        try {
+            writer.write(CsvFormat.row(row));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long finish() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return loader.ingest(table, columns, file).rows();
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // Nothing to flush any more, the file is deleted anyway
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temporary file, removed by the OS eventually
+        }
+    }
+}
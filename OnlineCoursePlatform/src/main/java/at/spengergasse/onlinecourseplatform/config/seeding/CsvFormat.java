@@ -0,0 +1,43 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import java.math.BigDecimal;
+import java.time.temporal.Temporal;
+
+/**
+ * CSV dialect shared by bulk import and export: comma separated, double-quoted strings with doubled quotes,
+ * an unquoted {@value #NULL} for null values, plain decimal numbers and ISO dates.
+ */
+public final class CsvFormat {
+
+    public static final String NULL = "NULL";
+
+    private CsvFormat() {
+    }
+
+    public static String value(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof Double d) {
+            return BigDecimal.valueOf(d).toPlainString();
+        }
+        if (value instanceof Number || value instanceof Temporal) {
+            return value.toString();
+        }
+        return '"' + value.toString().replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * One CSV line without the line terminator
+     */
+    public static String row(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(value(values[i]));
+        }
+        return line.toString();
+    }
+}
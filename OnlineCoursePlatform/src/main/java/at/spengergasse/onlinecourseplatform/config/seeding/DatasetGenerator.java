@@ -0,0 +1,240 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic synthetic dataset in the spirit of the TPC generators.
+ * The row counts follow {@code seeder.scale}, every random decision derives from
+ * {@code seeder.seed}, and all dates are relative to {@code seeder.reference-date},
+ * so the same configuration always produces the same rows, independent of how many
+ * workers write them and of the chunk size.
+ * <p>
+ * Only the small reference tables are planned up front (instructor departments,
+ * course instructors and course popularity); students and enrollments are
+ * generated row by row from their index.
+ */
+public class DatasetGenerator {
+
+    static final int STUDENTS_PER_SCALE = 50_000;
+    static final int INSTRUCTORS_PER_SCALE = 500;
+    static final int COURSES_PER_SCALE = 1_000;
+
+    private static final String[] STUDENT_FIRST_NAMES = {"Emma", "Liam", "Olivia", "Noah", "Ava", "Ethan", "Sophia",
+            "Mason", "Isabella", "William", "Mia", "James", "Charlotte", "Benjamin", "Amelia"};
+    private static final String[] STUDENT_LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson"};
+    private static final String[] CITIES = {"Vienna", "Salzburg", "Graz", "Innsbruck", "Linz", "Klagenfurt",
+            "Villach", "Wels"};
+
+    private static final String[] DEPARTMENTS = {"Computer Science", "Mathematics", "Physics", "Chemistry",
+            "Biology", "Engineering", "Business", "Arts", "History", "Literature"};
+    // Mean and standard deviation of the grades (0-100) awarded in each department
+    private static final double[] GRADE_MEANS = {74, 66, 68, 70, 76, 71, 79, 84, 80, 82};
+    private static final double[] GRADE_DEVIATIONS = {14, 17, 16, 15, 12, 14, 10, 8, 10, 9};
+    private static final double GRADED_SHARE = 0.5;
+
+    private static final String[] INSTRUCTOR_FIRST_NAMES = {"John", "Sarah", "Michael", "Emily", "David", "Jessica",
+            "Robert", "Lisa", "Daniel", "Jennifer", "Thomas", "Maria", "Christopher", "Anna"};
+    private static final String[] INSTRUCTOR_LAST_NAMES = {"Anderson", "Taylor", "Thomas", "Moore", "Jackson",
+            "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Clark", "Lewis", "Walker"};
+    private static final String[] BUILDINGS = {"Building A", "Building B", "Building C", "Main Campus",
+            "North Wing", "South Wing"};
+
+    private static final String[] SUBJECTS = {"Introduction to", "Advanced", "Fundamentals of", "Applied",
+            "Theoretical", "Practical", "Modern", "Classical"};
+    private static final String[] TOPICS = {"Programming", "Algorithms", "Data Structures", "Web Development",
+            "Machine Learning", "Database Systems", "Networks", "Security",
+            "Software Engineering", "AI", "Cloud Computing", "Mobile Development"};
+
+    private final long seed;
+    private final LocalDate referenceDate;
+    private final double enrollmentsPerStudent;
+
+    private final int studentCount;
+    private final int instructorCount;
+    private final int courseCount;
+
+    private final byte[] instructorDepartments;
+    private final int[] courseInstructors;
+    // Zipfian popularity: cumulative weight per rank, and the course holding each rank
+    private final double[] popularityCdf;
+    private final int[] coursesByRank;
+
+    public DatasetGenerator(SeederProperties properties) {
+        this.seed = properties.getSeed();
+        this.referenceDate = properties.getReferenceDate();
+        this.enrollmentsPerStudent = properties.getEnrollmentsPerStudent();
+
+        this.studentCount = scaled(STUDENTS_PER_SCALE, properties.getScale());
+        this.instructorCount = scaled(INSTRUCTORS_PER_SCALE, properties.getScale());
+        this.courseCount = scaled(COURSES_PER_SCALE, properties.getScale());
+
+        SplittableRandom random = new SplittableRandom(seed);
+        this.instructorDepartments = new byte[instructorCount];
+        for (int i = 0; i < instructorCount; i++) {
+            instructorDepartments[i] = (byte) random.nextInt(DEPARTMENTS.length);
+        }
+        this.courseInstructors = new int[courseCount];
+        for (int c = 0; c < courseCount; c++) {
+            courseInstructors[c] = random.nextInt(instructorCount);
+        }
+
+        this.popularityCdf = new double[courseCount];
+        double total = 0;
+        for (int rank = 0; rank < courseCount; rank++) {
+            total += 1.0 / Math.pow(rank + 1, properties.getCoursePopularitySkew());
+            popularityCdf[rank] = total;
+        }
+        for (int rank = 0; rank < courseCount; rank++) {
+            popularityCdf[rank] /= total;
+        }
+        this.coursesByRank = new int[courseCount];
+        for (int c = 0; c < courseCount; c++) {
+            coursesByRank[c] = c;
+        }
+        for (int c = courseCount - 1; c > 0; c--) {
+            int other = random.nextInt(c + 1);
+            int swap = coursesByRank[c];
+            coursesByRank[c] = coursesByRank[other];
+            coursesByRank[other] = swap;
+        }
+    }
+
+    private static int scaled(int perScale, double scale) {
+        return (int) Math.max(1, Math.round(perScale * scale));
+    }
+
+    public int studentCount() {
+        return studentCount;
+    }
+
+    public int instructorCount() {
+        return instructorCount;
+    }
+
+    public int courseCount() {
+        return courseCount;
+    }
+
+    /**
+     * Student row {@code (id, first_name, last_name, email, date_of_birth, phone_number, address, registration_date)}
+     */
+    public Object[] student(int index, long id, SplittableRandom random) {
+        return new Object[]{
+                id,
+                STUDENT_FIRST_NAMES[random.nextInt(STUDENT_FIRST_NAMES.length)] + index,
+                STUDENT_LAST_NAMES[random.nextInt(STUDENT_LAST_NAMES.length)],
+                "student" + index + "@university.edu",
+                referenceDate.minusYears(18 + random.nextInt(25)).minusDays(random.nextInt(365)),
+                "+43" + (600000000 + random.nextInt(99999999)),
+                CITIES[random.nextInt(CITIES.length)] + " Street " + (index % 1000),
+                referenceDate.minusDays(random.nextInt(1095))};
+    }
+
+    /**
+     * Instructor row {@code (id, first_name, last_name, email, department, phone_number, office_location,
+     * hire_date, biography)}
+     */
+    public Object[] instructor(int index, long id, SplittableRandom random) {
+        String department = DEPARTMENTS[instructorDepartments[index]];
+        return new Object[]{
+                id,
+                INSTRUCTOR_FIRST_NAMES[random.nextInt(INSTRUCTOR_FIRST_NAMES.length)],
+                INSTRUCTOR_LAST_NAMES[random.nextInt(INSTRUCTOR_LAST_NAMES.length)] + index,
+                "instructor" + index + "@university.edu",
+                department,
+                "+43" + (660000000 + random.nextInt(99999999)),
+                BUILDINGS[random.nextInt(BUILDINGS.length)] + " Room " + (100 + index % 900),
+                referenceDate.minusYears(random.nextInt(20)),
+                "Experienced professor with " + (1 + random.nextInt(25)) + " years in academia. " +
+                        "Specializes in various aspects of " + department + "."};
+    }
+
+    /**
+     * Course row {@code (id, name, description, instructor_id)}
+     */
+    public Object[] course(int index, long id, SplittableRandom random, KeySet instructorIds) {
+        return new Object[]{
+                id,
+                SUBJECTS[random.nextInt(SUBJECTS.length)] + " " +
+                        TOPICS[random.nextInt(TOPICS.length)] + " " + (index + 1),
+                "This is a comprehensive course covering various aspects of the subject. " +
+                        "Students will learn through lectures, assignments, and projects. " +
+                        "Course code: CS-" + (1000 + index),
+                instructorIds.get(courseInstructors[index])};
+    }
+
+    /**
+     * Number of enrollments of a student, Poisson distributed around {@code seeder.enrollments-per-student}
+     */
+    public int enrollmentCount(int studentIndex) {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL ^ ((long) studentIndex << 20));
+        double limit = Math.exp(-enrollmentsPerStudent);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            count++;
+            product *= random.nextDouble();
+        }
+        return Math.min(count, courseCount);
+    }
+
+    /**
+     * Enrollments of the students {@code [from, to)}, used to assign stable ids to every chunk
+     */
+    public long enrollmentCount(int from, int to) {
+        long total = 0;
+        for (int s = from; s < to; s++) {
+            total += enrollmentCount(s);
+        }
+        return total;
+    }
+
+    /**
+     * Emits the enrollment rows {@code (id, student_id, course_id, grade)} of one student: distinct
+     * courses picked by Zipfian popularity, graded by the department of the course
+     */
+    public int enrollments(int studentIndex, long firstId, SplittableRandom random,
+                           KeySet studentIds, KeySet courseIds, Consumer<Object[]> sink) {
+        int count = enrollmentCount(studentIndex);
+        int[] courses = new int[count];
+        for (int e = 0; e < count; e++) {
+            int course = popularCourse(random);
+            for (int attempt = 0; contains(courses, e, course); attempt++) {
+                course = attempt < 32 ? popularCourse(random) : (course + 1) % courseCount;
+            }
+            courses[e] = course;
+
+            // Roughly half of all enrollments are still in progress and have no grade yet
+            Double grade = random.nextDouble() < GRADED_SHARE ? grade(course, random) : null;
+            sink.accept(new Object[]{firstId + e, studentIds.get(studentIndex), courseIds.get(course), grade});
+        }
+        return count;
+    }
+
+    private int popularCourse(SplittableRandom random) {
+        int rank = Arrays.binarySearch(popularityCdf, random.nextDouble());
+        rank = rank >= 0 ? rank : Math.min(-rank - 1, courseCount - 1);
+        return coursesByRank[rank];
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double grade(int course, SplittableRandom random) {
+        int department = instructorDepartments[courseInstructors[course]];
+        // Box-Muller transform; grades are clamped to the valid range and kept to one decimal
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double grade = GRADE_MEANS[department] + gaussian * GRADE_DEVIATIONS[department];
+        return Math.round(Math.clamp(grade, 0.0, 100.0) * 10) / 10.0;
+    }
+}
@@ -0,0 +1,30 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import java.util.List;
+
+/**
+ * Outcome of ingesting one CSV file. Only the first {@value CsvBulkLoader#MAX_REPORTED_REJECTS}
+ * rejected records of an import are listed, {@code rejected} counts all of them.
+ */
+public record IngestResult(String table, long rows, long millis, long rowsPerSecond, long rejected,
+                           List<Reject> rejects) {
+
+    public static IngestResult of(String table, long rows, long nanos) {
+        long millis = Math.max(1, nanos / 1_000_000);
+        return new IngestResult(table, rows, millis, rows * 1000 / millis, 0, List.of());
+    }
+
+    public IngestResult withRejects(long rejected, List<Reject> rejects) {
+        return new IngestResult(table, rows, millis, rowsPerSecond, rejected, List.copyOf(rejects));
+    }
+
+    /**
+     * A record that was not loaded
+     *
+     * @param line   line number in the file the record starts on, the header is line 1
+     * @param record the record as read
+     * @param reason why it was rejected
+     */
+    public record Reject(long line, String record, String reason) {
+    }
+}
@@ -0,0 +1,43 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import java.util.SplittableRandom;
+
+/**
+ * The primary keys of a seeded table, used by later stages to pick references.
+ * Seeded ids are reserved in one block, so the keys are kept as {@code first + size}. Entities are never loaded.
+ */
+public final class KeySet {
+
+    private final long first;
+    private final int size;
+
+    private KeySet(long first, int size) {
+        this.first = first;
+        this.size = size;
+    }
+
+    public static KeySet range(long first, int size) {
+        return new KeySet(first, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return first + index;
+    }
+
+    /**
+     * Pick a uniformly distributed key
+     */
+    public long random(SplittableRandom random) {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot pick a key from an empty table");
+        }
+        return get(random.nextInt(size));
+    }
+}
@@ -0,0 +1,82 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+
+/**
+ * Splits the rows of a table into chunks and writes every chunk on its own worker.
+ * Each chunk runs in its own transaction, so it holds its own connection and
+ * commits once. Every row gets its own {@link SplittableRandom}, so workers never share state;
+ * it only depends on the seed, the table and the row index, which keeps the generated rows
+ * identical whatever the degree of parallelism and the chunk size.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PartitionedLoader {
+
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long seed;
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Runs the writer over {@code [0, count)} in chunks; completes once every chunk is committed
+     */
+    public CompletableFuture<Long> load(String entityName, int count, ChunkWriter writer) {
+        log.info("Generating {} in {} chunks...", entityName, (count + chunkSize - 1) / chunkSize);
+        long startTime = System.nanoTime();
+
+        long tableSeed = mix(seed ^ ((long) entityName.hashCode() << 32));
+        List<CompletableFuture<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < count; from += chunkSize) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(count, from + chunkSize);
+            chunks.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(
+                    status -> writer.write(chunkFrom, chunkTo, index -> rowRandom(tableSeed, index))), executor));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    long rows = chunks.stream().mapToLong(CompletableFuture::join).sum();
+                    long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+                    log.info("Completed generating {} {} in {} ms ({} rows/s)",
+                            rows, entityName, elapsedMillis, rows * 1000 / elapsedMillis);
+                    return rows;
+                });
+    }
+
+    /**
+     * Random of one row of a table
+     */
+    private static SplittableRandom rowRandom(long tableSeed, int index) {
+        return new SplittableRandom(mix(tableSeed ^ index * 0x9E3779B97F4A7C15L));
+    }
+
+    // Stafford's mix13 finalizer; neighbouring seeds of a SplittableRandom would give overlapping sequences
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generates and writes the rows of the indexes {@code [from, to)}, each with the random {@code randoms}
+     * returns for its index; returns the number of rows written
+     */
+    @FunctionalInterface
+    public interface ChunkWriter {
+        long write(int from, int to, IntFunction<SplittableRandom> randoms);
+    }
+}
@@ -0,0 +1,22 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+/**
+ * Destination of the generated rows of one chunk. Closing a sink releases what it holds,
+ * whether or not it was finished.
+ */
+public interface RowSink extends AutoCloseable {
+
+    /**
+     * Add a row; the values must match the columns the sink was opened for
+     */
+    void add(Object... row);
+
+    /**
+     * Write everything still pending and return the number of rows written
+     */
+    long finish();
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,26 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+/**
+ * Database product the seeder talks to; bulk ingest statements differ between them.
+ */
+public enum SeedDialect {
+
+    MYSQL,
+    H2,
+    OTHER;
+
+    public static SeedDialect detect(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>)
+                con -> con.getMetaData().getDatabaseProductName());
+        String name = product == null ? "" : product.toLowerCase(Locale.ROOT);
+        if (name.contains("mysql") || name.contains("mariadb")) {
+            return MYSQL;
+        }
+        return name.contains("h2") ? H2 : OTHER;
+    }
+}
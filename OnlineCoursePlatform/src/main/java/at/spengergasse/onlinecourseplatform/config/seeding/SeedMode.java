@@ -0,0 +1,17 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+/**
+ * How the seeder gets generated rows into the database
+ */
+public enum SeedMode {
+
+    /**
+     * JDBC batches of multi-row INSERTs
+     */
+    BATCH,
+
+    /**
+     * Temporary CSV files ingested with LOAD DATA LOCAL INFILE (MySQL) or CSVREAD (H2)
+     */
+    BULK
+}
@@ -0,0 +1,11 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+/**
+ * Number of rows written per table by one seeding run
+ */
+public record SeedResult(long students, long instructors, long courses, long enrollments) {
+
+    public long total() {
+        return students + instructors + courses + enrollments;
+    }
+}
@@ -0,0 +1,74 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+@ConfigurationProperties(prefix = "seeder")
+@Getter
+@Setter
+public class SeederProperties {
+
+    /**
+     * Seed an empty database on startup
+     */
+    private boolean enabled = true;
+
+    /**
+     * Dataset size; 1 produces 50000 students, 500 instructors, 1000 courses and about 98500 enrollments
+     */
+    private double scale = 1.0;
+
+    /**
+     * Seed of every random decision; the same seed and scale always produce the same rows
+     */
+    private long seed = 42;
+
+    /**
+     * Date all birth, hire and registration dates are derived from
+     */
+    private LocalDate referenceDate = LocalDate.of(2025, 10, 1);
+
+    /**
+     * Mean of the Poisson distributed number of enrollments per student
+     */
+    private double enrollmentsPerStudent = 1.97;
+
+    /**
+     * Exponent of the Zipfian course popularity; 0 spreads enrollments evenly
+     */
+    private double coursePopularitySkew = 1.0;
+
+    /**
+     * Number of worker threads; 0 uses one worker per available processor
+     */
+    private int parallelism = 0;
+
+    /**
+     * Rows generated and committed by one worker in a single transaction
+     */
+    private int chunkSize = 10_000;
+
+    /**
+     * Rows sent to the database per JDBC batch
+     */
+    private int batchSize = 1000;
+
+    /**
+     * BATCH inserts rows over JDBC, BULK spools them into CSV files that the database ingests itself
+     */
+    private SeedMode mode = SeedMode.BATCH;
+
+    /**
+     * Directory of the CSV files the database ingests in BULK mode and on imports; on MySQL the only directory
+     * {@code LOAD DATA LOCAL INFILE} may read from, see {@code allowLoadLocalInfileInPath}
+     */
+    private Path bulkDirectory = Path.of(System.getProperty("java.io.tmpdir"), "onlinecourseplatform-bulk");
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
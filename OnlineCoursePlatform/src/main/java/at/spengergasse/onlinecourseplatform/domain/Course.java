@@ -1,14 +1,19 @@
 package at.spengergasse.onlinecourseplatform.domain;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
 @Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +22,7 @@ import java.util.Objects;
 public class    Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("courses")
     private Long id;
 
     @NotBlank(message = "Course name is required")
@@ -35,6 +40,11 @@ public class    Course {
     @Column(name = "instructor_id")
     private Long instructorId;
 
+    // Seats of the course, null means unlimited; seats taken are counted in course_seats, see SeatStripe
+    @Min(value = 1, message = "Capacity must be at least 1")
+    @Column(name = "capacity")
+    private Integer capacity;
+
     @Version
     private Long version;
 
@@ -57,6 +67,7 @@ public class    Course {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", instructorId=" + instructorId +
+                ", capacity=" + capacity +
                 ", version=" + version +
                 '}';
     }
@@ -8,28 +8,43 @@ import lombok.*;
 import java.util.Objects;
 
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"student_id", "course_id"}, name = "uk_enrollment_student_course")
+}, indexes = {
+        @Index(columnList = "course_id, grade", name = "idx_enrollment_course_grade"),
+        @Index(columnList = "student_id, grade", name = "idx_enrollment_student_grade")
+})
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
-@Builder
 public class Enrollment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("enrollments")
     private Long id;
 
-    // Note: student_id foreign key will be added once Student entity is ready
-    // Temporary field to store student reference
     @Column(name = "student_id", nullable = false)
     private Long studentId;
 
-    // Note: course_id foreign key will be added once we connect with Course entity
-    // Temporary field to store course reference
     @Column(name = "course_id", nullable = false)
     private Long courseId;
 
+    // Read-only associations that only declare the foreign keys to students(id) and courses(id);
+    // enrollments are written and queried through studentId and courseId
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_enrollment_student"))
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_enrollment_course"))
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Course course;
+
     @DecimalMin(value = "0.0", message = "Grade must be at least 0.0")
     @DecimalMax(value = "100.0", message = "Grade must not exceed 100.0")
     @Column(name = "grade")
@@ -38,6 +53,15 @@ public class Enrollment {
     @Version
     private Long version;
 
+    @Builder
+    public Enrollment(Long id, Long studentId, Long courseId, Double grade, Long version) {
+        this.id = id;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.grade = grade;
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
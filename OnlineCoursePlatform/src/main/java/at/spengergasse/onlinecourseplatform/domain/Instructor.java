@@ -3,6 +3,8 @@ package at.spengergasse.onlinecourseplatform.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.Objects;
@@ -11,6 +13,8 @@ import java.util.Objects;
 @Table(name = "instructors", uniqueConstraints = {
         @UniqueConstraint(columnNames = "email", name = "uk_instructor_email")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "instructors")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +24,7 @@ import java.util.Objects;
 public class Instructor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("instructors")
     private Long id;
 
     @NotBlank(message = "First name is required")
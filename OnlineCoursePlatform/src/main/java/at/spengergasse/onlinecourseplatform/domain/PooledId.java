@@ -0,0 +1,23 @@
+package at.spengergasse.onlinecourseplatform.domain;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id drawn from a block of the {@code id_generators} table instead of an IDENTITY column.
+ * Hibernate knows the id before the INSERT, so inserts can be batched.
+ */
+@IdGeneratorType(PooledTableIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledId {
+
+    /**
+     * Row of the generator table, by convention the name of the entity's table
+     */
+    String value();
+}
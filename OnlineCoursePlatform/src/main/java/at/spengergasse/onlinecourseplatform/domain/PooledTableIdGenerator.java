@@ -0,0 +1,70 @@
+package at.spengergasse.onlinecourseplatform.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.InitCommand;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Table based hi/lo generator shared by all entities, one row per table.
+ * Each round trip to the generator table reserves a block of ids that are then handed out
+ * in memory (pooled-lo), so the block size is the number of inserts per round trip.
+ * The block size is read from {@value #ALLOCATION_SIZE_SETTING}.
+ * <p>
+ * A row holds the last id handed out for its table, whose name is the segment value. The row is created on first
+ * use, behind the ids of rows that were inserted before the generator existed.
+ */
+public class PooledTableIdGenerator extends TableGenerator {
+
+    public static final String TABLE = "id_generators";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    public static final String ALLOCATION_SIZE_SETTING = "onlinecourseplatform.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String segment;
+
+    public PooledTableIdGenerator(PooledId config) {
+        this.segment = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.setProperty(TABLE_PARAM, TABLE);
+        parameters.setProperty(SEGMENT_COLUMN_PARAM, SEGMENT_COLUMN);
+        parameters.setProperty(VALUE_COLUMN_PARAM, VALUE_COLUMN);
+        parameters.setProperty(SEGMENT_VALUE_PARAM, segment);
+        parameters.setProperty(OptimizableGenerator.INITIAL_PARAM, "1");
+        parameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OptimizableGenerator.OPT_PARAM, "pooled-lo");
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    /**
+     * No row at schema creation, the tables whose ids it would have to start behind may not exist yet
+     */
+    @Override
+    protected InitCommand generateInsertInitCommand(SqlStringGenerationContext context) {
+        return new InitCommand();
+    }
+
+    /**
+     * Create the row with the highest id of the table, or the initial value if the table is empty.
+     * Hibernate binds the segment value and the initial value, and retries its update on the value read back.
+     */
+    @Override
+    protected String buildInsertQuery(String formattedPhysicalTableName, SqlStringGenerationContext context) {
+        return "insert into " + formattedPhysicalTableName + " (" + SEGMENT_COLUMN + ", " + VALUE_COLUMN + ")" +
+                " select ?, coalesce(max(id), ?) from " + segment;
+    }
+}
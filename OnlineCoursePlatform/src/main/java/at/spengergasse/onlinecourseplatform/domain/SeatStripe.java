@@ -0,0 +1,58 @@
+package at.spengergasse.onlinecourseplatform.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * One stripe of the seats of a course with a capacity. The capacity is split across up to
+ * {@code SeatReservations.STRIPES} stripes, so concurrent enrollments in the same course
+ * update different rows. Written with JDBC only, see
+ * {@link at.spengergasse.onlinecourseplatform.service.enrollment.SeatReservations}.
+ */
+@Entity
+@Table(name = "course_seats")
+@IdClass(SeatStripe.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class SeatStripe {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    // Read-only association that only declares the foreign key to courses(id); the stripes of a deleted course
+    // are deleted with it, before the post-commit reconciliation would get to them
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_course_seats_course"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Course course;
+
+    @Id
+    @Column(name = "stripe")
+    private Integer stripe;
+
+    // Share of the course capacity
+    @Column(name = "seats", nullable = false)
+    private Integer seats;
+
+    @Column(name = "taken", nullable = false)
+    private Integer taken;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long courseId;
+        private Integer stripe;
+    }
+}
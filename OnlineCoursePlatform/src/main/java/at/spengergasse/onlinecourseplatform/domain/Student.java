@@ -20,7 +20,7 @@ import java.util.Objects;
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId("students")
     private Long id;
 
     @NotBlank(message = "First name is required")
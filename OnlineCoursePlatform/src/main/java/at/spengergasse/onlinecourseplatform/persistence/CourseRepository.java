@@ -1,8 +1,18 @@
 package at.spengergasse.onlinecourseplatform.persistence;
 
 import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.CourseDtos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,8 +28,18 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     Optional<Course> findByNameIgnoreCase(String name);
 
     /**
-     * Find all courses by instructor ID
+     * Id of the course with a name (case-insensitive), cached. Only the id is cached; {@link #findById} then
+     * answers from the second-level cache, which hands every caller an instance of its own.
      */
+    @Cacheable(cacheNames = LookupCaches.COURSES_BY_NAME, key = LookupCaches.IGNORE_CASE_KEY,
+            condition = "#p0 != null", sync = true)
+    @Query("SELECT c.id FROM Course c WHERE LOWER(c.name) = LOWER(:name)")
+    Optional<Long> findIdByNameIgnoreCase(@Param("name") String name);
+
+    /**
+     * Find all courses by instructor ID; results come from the query cache until courses change
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Course> findByInstructorId(Long instructorId);
 
     /**
@@ -38,8 +58,13 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     boolean existsByNameIgnoreCase(String name);
 
     /**
-     * Custom query to search courses by name or description
+     * Custom query to search courses by name or description.
+     * Scans the whole table.
+     *
+     * @deprecated catalog searches are answered by the course index, use
+     * {@link at.spengergasse.onlinecourseplatform.service.search.CourseSearchService#search} instead
      */
+    @Deprecated
     @Query("SELECT c FROM Course c WHERE " +
             "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
             "LOWER(c.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
@@ -48,5 +73,24 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     /**
      * Count courses by instructor ID
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByInstructorId(Long instructorId);
+
+    // Keyset pagination: each window continues after the last row of the previous one,
+    // so deep pages cost the same as the first page.
+
+    Window<Course> findAllByOrderById(ScrollPosition position, Limit limit);
+
+    Window<Course> findByInstructorIdOrderById(Long instructorId, ScrollPosition position, Limit limit);
+
+    Window<Course> findByNameContainingIgnoreCaseOrderByNameAscIdAsc(String keyword, ScrollPosition position,
+                                                                     Limit limit);
+
+    Window<Course> findByDescriptionContainingIgnoreCaseOrderById(String keyword, ScrollPosition position,
+                                                                  Limit limit);
+
+    // DTO projections: only the columns of the record are selected, no entity is loaded or managed.
+    // Like all query methods they run in the repository's read-only transactions.
+
+    Page<CourseDtos.Summary> findSummariesByInstructorId(Long instructorId, Pageable pageable);
 }
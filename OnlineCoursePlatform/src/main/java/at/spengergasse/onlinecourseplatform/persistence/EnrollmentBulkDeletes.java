@@ -0,0 +1,43 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Bulk deletes of enrollments: one DELETE statement instead of loading and removing every enrollment.
+ * Pending changes are flushed first and the persistence context is cleared afterwards,
+ * so no stale copies of deleted enrollments survive. The statements bypass the
+ * {@link at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent}s of single entities;
+ * instead every delete publishes an
+ * {@link at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent} naming the courses
+ * and students of the deleted enrollments once it committed.
+ */
+public interface EnrollmentBulkDeletes {
+
+    /**
+     * Delete all enrollments for a specific student
+     *
+     * @return number of deleted enrollments
+     */
+    @Transactional
+    int deleteByStudentId(Long studentId);
+
+    /**
+     * Delete all enrollments for a specific course
+     *
+     * @return number of deleted enrollments
+     */
+    @Transactional
+    int deleteByCourseId(Long courseId);
+
+    /**
+     * Delete the enrollments of a student up to an id; deletes of large sets advance in id ranges
+     */
+    @Transactional
+    int deleteByStudentIdUpTo(Long studentId, Long maxId);
+
+    /**
+     * Delete the enrollments of a course up to an id; deletes of large sets advance in id ranges
+     */
+    @Transactional
+    int deleteByCourseIdUpTo(Long courseId, Long maxId);
+}
@@ -0,0 +1,87 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+@Slf4j
+class EnrollmentBulkDeletesImpl implements EnrollmentBulkDeletes {
+
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public int deleteByStudentId(Long studentId) {
+        return delete("studentId", "student_id", studentId, null);
+    }
+
+    @Override
+    public int deleteByCourseId(Long courseId) {
+        return delete("courseId", "course_id", courseId, null);
+    }
+
+    @Override
+    public int deleteByStudentIdUpTo(Long studentId, Long maxId) {
+        return delete("studentId", "student_id", studentId, maxId);
+    }
+
+    @Override
+    public int deleteByCourseIdUpTo(Long courseId, Long maxId) {
+        return delete("courseId", "course_id", courseId, maxId);
+    }
+
+    private int delete(String property, String column, Long id, Long maxId) {
+        entityManager.flush();
+        // Locking read, no enrollment can be added to the deleted set before the DELETE
+        Query changed = entityManager.createNativeQuery("SELECT course_id, student_id FROM enrollments WHERE " +
+                column + " = :id" + (maxId == null ? "" : " AND id <= :maxId") + " FOR UPDATE");
+        Query delete = entityManager.createQuery("DELETE FROM Enrollment e WHERE e." + property + " = :id" +
+                (maxId == null ? "" : " AND e.id <= :maxId"));
+        changed.setParameter("id", id);
+        delete.setParameter("id", id);
+        if (maxId != null) {
+            changed.setParameter("maxId", maxId);
+            delete.setParameter("maxId", maxId);
+        }
+
+        Set<Long> courseIds = new HashSet<>();
+        Set<Long> studentIds = new HashSet<>();
+        for (Object row : (List<?>) changed.getResultList()) {
+            Object[] values = (Object[]) row;
+            courseIds.add(((Number) values[0]).longValue());
+            studentIds.add(((Number) values[1]).longValue());
+        }
+        int deleted = delete.executeUpdate();
+        entityManager.clear();
+        if (deleted > 0) {
+            publishAfterCommit(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.DELETED, courseIds,
+                    studentIds));
+        }
+        return deleted;
+    }
+
+    private void publishAfterCommit(EnrollmentsChangedEvent event) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    eventPublisher.publishEvent(event);
+                } catch (RuntimeException e) {
+                    // The transaction is already committed; a failing listener must not fail the caller
+                    log.warn("Listener failed on {}", event, e);
+                }
+            }
+        });
+    }
+}
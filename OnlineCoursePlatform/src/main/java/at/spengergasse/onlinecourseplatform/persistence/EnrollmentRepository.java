@@ -1,16 +1,25 @@
 package at.spengergasse.onlinecourseplatform.persistence;
 
 import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentBulkDeletes {
 
     /**
      * Find all enrollments for a specific student
@@ -65,16 +74,22 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     /**
      * Count enrollments for a specific course
      */
+    @Cacheable(cacheNames = LookupCaches.ENROLLMENT_COUNT_BY_COURSE, key = "#p0", condition = "#p0 != null",
+            sync = true)
     long countByCourseId(Long courseId);
 
     /**
-     * Calculate average grade for a student
+     * Calculate average grade for a student.
+     * Runs an aggregate over the student's enrollments, frequent reads should use
+     * {@link at.spengergasse.onlinecourseplatform.service.stats.GradeStatistics#ofStudent(long)}
      */
     @Query("SELECT AVG(e.grade) FROM Enrollment e WHERE e.studentId = :studentId AND e.grade IS NOT NULL")
     Double calculateAverageGradeByStudentId(@Param("studentId") Long studentId);
 
     /**
-     * Calculate average grade for a course
+     * Calculate average grade for a course.
+     * Runs an aggregate over the course's enrollments, frequent reads should use
+     * {@link at.spengergasse.onlinecourseplatform.service.stats.GradeStatistics#ofCourse(long)}
      */
     @Query("SELECT AVG(e.grade) FROM Enrollment e WHERE e.courseId = :courseId AND e.grade IS NOT NULL")
     Double calculateAverageGradeByCourseId(@Param("courseId") Long courseId);
@@ -89,13 +104,81 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     List<Enrollment> findByCourseIdAndGradeIsNotNull(Long courseId);
 
-    /**
-     * Delete all enrollments for a specific student
-     */
-    void deleteByStudentId(Long studentId);
+    List<EnrollmentDtos.Dto> findDtosByStudentIdOrderById(Long studentId, Limit limit);
+
+    List<EnrollmentDtos.Dto> findDtosByCourseIdOrderById(Long courseId, Limit limit);
 
     /**
-     * Delete all enrollments for a specific course
+     * Find one enrollment as DTO
      */
-    void deleteByCourseId(Long courseId);
+    Optional<EnrollmentDtos.Dto> findDtoById(Long id);
+
+    // Keyset pagination: each window continues after the last row of the previous one,
+    // so deep pages cost the same as the first page. Grade windows are sorted by grade, ties by id.
+
+    Window<Enrollment> findAllByOrderById(ScrollPosition position, Limit limit);
+
+    Window<Enrollment> findByStudentIdOrderById(Long studentId, ScrollPosition position, Limit limit);
+
+    Window<Enrollment> findByCourseIdOrderById(Long courseId, ScrollPosition position, Limit limit);
+
+    Window<Enrollment> findByGradeGreaterThanEqualOrderByGradeDescIdAsc(Double minGrade, ScrollPosition position,
+                                                                        Limit limit);
+
+    Window<Enrollment> findByGradeLessThanOrderByGradeDescIdAsc(Double maxGrade, ScrollPosition position,
+                                                                Limit limit);
+
+    Window<Enrollment> findByGradeBetweenOrderByGradeDescIdAsc(Double minGrade, Double maxGrade,
+                                                               ScrollPosition position, Limit limit);
+
+    Window<Enrollment> findByGradeIsNullOrderById(ScrollPosition position, Limit limit);
+
+    Window<Enrollment> findByGradeIsNotNullOrderByGradeDescIdAsc(ScrollPosition position, Limit limit);
+
+    Window<Enrollment> findByStudentIdAndGradeIsNotNullOrderById(Long studentId, ScrollPosition position,
+                                                                 Limit limit);
+
+    Window<Enrollment> findByCourseIdAndGradeIsNotNullOrderByGradeDescIdAsc(Long courseId, ScrollPosition position,
+                                                                            Limit limit);
+
+    // Streaming: rows are read through a cursor instead of being collected into a list, see Streaming
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Enrollment> streamAllByOrderById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Enrollment> streamByCourseIdOrderById(Long courseId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Enrollment> streamByStudentIdOrderById(Long studentId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<EnrollmentDtos.Dto> streamDtosByOrderById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<EnrollmentDtos.Dto> streamDtosByCourseIdOrderById(Long courseId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<EnrollmentDtos.Dto> streamDtosByStudentIdOrderById(Long studentId);
 }
@@ -0,0 +1,82 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.PooledTableIdGenerator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Reserves id blocks from the same {@code id_generators} rows Hibernate uses,
+ * for writers that insert rows with plain JDBC. Reserved ids are never handed out twice,
+ * neither to another writer nor to Hibernate. As for Hibernate, a row holds the last id handed out.
+ */
+@Component
+public class IdBlockAllocator {
+
+    private static final String SELECT_FOR_UPDATE = "SELECT " + PooledTableIdGenerator.VALUE_COLUMN +
+            " FROM " + PooledTableIdGenerator.TABLE +
+            " WHERE " + PooledTableIdGenerator.SEGMENT_COLUMN + " = ? FOR UPDATE";
+    private static final String UPDATE = "UPDATE " + PooledTableIdGenerator.TABLE +
+            " SET " + PooledTableIdGenerator.VALUE_COLUMN + " = ?" +
+            " WHERE " + PooledTableIdGenerator.SEGMENT_COLUMN + " = ?";
+    private static final String INSERT = "INSERT INTO " + PooledTableIdGenerator.TABLE +
+            " (" + PooledTableIdGenerator.SEGMENT_COLUMN + ", " + PooledTableIdGenerator.VALUE_COLUMN + ")" +
+            " VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The generator row stays locked until commit, so never join a longer running transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserve {@code count} consecutive ids of a table and return the first one
+     */
+    public long reserve(String table, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        return update(table, last -> last + count);
+    }
+
+    /**
+     * Make sure ids up to {@code maxId} are never generated, e.g. after rows were imported with their ids
+     */
+    public void advancePast(String table, long maxId) {
+        update(table, last -> Math.max(last, maxId));
+    }
+
+    private long update(String table, LongUnaryOperator advance) {
+        Long first = transactionTemplate.execute(status -> {
+            long last = lockLast(table);
+            jdbcTemplate.update(UPDATE, advance.applyAsLong(last), table);
+            return last + 1;
+        });
+        return first == null ? 0 : first;
+    }
+
+    private long lockLast(String table) {
+        List<Long> last = jdbcTemplate.queryForList(SELECT_FOR_UPDATE, Long.class, table);
+        if (!last.isEmpty()) {
+            return last.get(0);
+        }
+        // First use of the table: start behind rows that were inserted before the generator existed
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        try {
+            jdbcTemplate.update(INSERT, table, maxId == null ? 0 : maxId);
+        } catch (DuplicateKeyException e) {
+            // Created concurrently, fall through to the locked read
+        }
+        return jdbcTemplate.queryForObject(SELECT_FOR_UPDATE, Long.class, table);
+    }
+}
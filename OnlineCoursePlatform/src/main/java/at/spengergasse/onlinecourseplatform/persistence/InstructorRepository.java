@@ -1,21 +1,39 @@
 package at.spengergasse.onlinecourseplatform.persistence;
 
 import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.InstructorDtos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InstructorRepository extends JpaRepository<Instructor, Long> {
+public interface InstructorRepository extends JpaRepository<Instructor, Long>, InstructorSearch {
 
     List<Instructor> findByFirstNameContainingIgnoreCase(String firstName);
     List<Instructor> findByLastNameContainingIgnoreCase(String lastName);
+    // Results come from the query cache until instructors change
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Instructor> findByDepartmentIgnoreCase(String department);
     Optional<Instructor> findByEmailIgnoreCase(String email);
+    // Cached lookup; only the id is cached, findById then answers from the second-level cache
+    @Cacheable(cacheNames = LookupCaches.INSTRUCTORS_BY_EMAIL, key = LookupCaches.IGNORE_CASE_KEY,
+            condition = "#p0 != null", sync = true)
+    @Query("SELECT i.id FROM Instructor i WHERE LOWER(i.email) = LOWER(:email)")
+    Optional<Long> findIdByEmailIgnoreCase(@Param("email") String email);
     boolean existsByEmailIgnoreCase(String email);
 
     @Query("SELECT i FROM Instructor i WHERE LOWER(i.firstName) LIKE LOWER(CONCAT('%', :term, '%')) " +
@@ -24,4 +42,23 @@ public interface InstructorRepository extends JpaRepository<Instructor, Long> {
     List<Instructor> searchInstructors(@Param("term") String searchTerm);
 
     List<Instructor> findByHireDateBefore(java.time.LocalDate date);
-}
\ No newline at end of file
+
+    // Keyset pagination: each window continues after the last row of the previous one,
+    // so deep pages cost the same as the first page.
+
+    Window<Instructor> findAllByOrderById(ScrollPosition position, Limit limit);
+    Window<Instructor> findByFirstNameContainingIgnoreCaseOrderById(String firstName, ScrollPosition position,
+                                                                    Limit limit);
+    Window<Instructor> findByLastNameContainingIgnoreCaseOrderById(String lastName, ScrollPosition position,
+                                                                   Limit limit);
+    Window<Instructor> findByDepartmentIgnoreCaseOrderById(String department, ScrollPosition position, Limit limit);
+    Window<Instructor> findByHireDateBeforeOrderByHireDateAscIdAsc(java.time.LocalDate date, ScrollPosition position,
+                                                                   Limit limit);
+
+    // DTO projections: only the columns of the record are selected, no entity is loaded or managed.
+    // Like all query methods they run in the repository's read-only transactions.
+
+    Page<InstructorDtos.Summary> findSummariesBy(Pageable pageable);
+    List<InstructorDtos.Summary> findSummariesByIdInOrderById(Collection<Long> ids);
+    Optional<InstructorDtos.Dto> findDtoById(Long id);
+}
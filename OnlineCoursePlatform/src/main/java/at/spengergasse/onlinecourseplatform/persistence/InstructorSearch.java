@@ -0,0 +1,21 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Indexed variants of {@link InstructorRepository#searchInstructors(String)}; results are ordered by id
+ */
+public interface InstructorSearch {
+
+    /**
+     * Ids of the instructors whose first name, last name, email or department contains the term (case-insensitive)
+     */
+    Page<Long> searchInstructorIds(String term, Pageable pageable);
+
+    /**
+     * Instructors whose first name, last name, email or department contains the term (case-insensitive)
+     */
+    Page<Instructor> searchInstructors(String term, Pageable pageable);
+}
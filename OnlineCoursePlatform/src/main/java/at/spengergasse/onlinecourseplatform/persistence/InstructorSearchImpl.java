@@ -0,0 +1,37 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.persistence.search.TrigramSearchSupport;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+class InstructorSearchImpl extends TrigramSearchSupport<Instructor> implements InstructorSearch {
+
+    InstructorSearchImpl(EntityManager entityManager) {
+        super(entityManager, Instructor.class, "instructors", List.of("firstName", "lastName", "email", "department"));
+    }
+
+    @Override
+    protected String[] values(Instructor instructor) {
+        return new String[]{instructor.getFirstName(), instructor.getLastName(), instructor.getEmail(),
+                instructor.getDepartment()};
+    }
+
+    @Override
+    protected Long id(Instructor instructor) {
+        return instructor.getId();
+    }
+
+    @Override
+    public Page<Long> searchInstructorIds(String term, Pageable pageable) {
+        return searchIds(term, pageable);
+    }
+
+    @Override
+    public Page<Instructor> searchInstructors(String term, Pageable pageable) {
+        return search(term, pageable);
+    }
+}
@@ -0,0 +1,132 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque, URL safe continuation token for keyset {@link Window}s.
+ * The token carries the sort keys of the last row of a window (including its id), each with a type tag,
+ * so clients can pass it back without knowing how the window is sorted.
+ */
+public final class KeysetToken {
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 'N';
+    private static final byte LONG = 'L';
+    private static final byte INTEGER = 'I';
+    private static final byte DOUBLE = 'D';
+    private static final byte STRING = 'S';
+    private static final byte DATE = 'T';
+
+    private KeysetToken() {
+    }
+
+    /**
+     * Token continuing after the last row of the window, or {@code null} if there are no more rows
+     */
+    public static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        return encode(window.positionAt(window.size() - 1));
+    }
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded: " + position);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeBoolean(keyset.scrollsBackward());
+            out.writeByte(keyset.getKeys().size());
+            for (Map.Entry<String, ?> key : keyset.getKeys().entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Position encoded by the token; a missing token starts at the first row
+     */
+    public static KeysetScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported continuation token");
+            }
+            boolean backward = in.readBoolean();
+            int count = in.readUnsignedByte();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Invalid continuation token");
+            }
+            return backward ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case Long l -> {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            }
+            case Integer i -> {
+                out.writeByte(INTEGER);
+                out.writeInt(i);
+            }
+            case Double d -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case String s -> {
+                out.writeByte(STRING);
+                out.writeUTF(s);
+            }
+            case LocalDate date -> {
+                out.writeByte(DATE);
+                out.writeLong(date.toEpochDay());
+            }
+            default -> throw new IllegalArgumentException("Unsupported sort key type: " + value.getClass());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case LONG -> in.readLong();
+            case INTEGER -> in.readInt();
+            case DOUBLE -> in.readDouble();
+            case STRING -> in.readUTF();
+            case DATE -> LocalDate.ofEpochDay(in.readLong());
+            default -> throw new IllegalArgumentException("Unknown type tag: " + type);
+        };
+    }
+}
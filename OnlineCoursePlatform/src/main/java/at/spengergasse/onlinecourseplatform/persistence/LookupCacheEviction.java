@@ -0,0 +1,88 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Evicts the {@link LookupCaches} entries a committed write affects: the entry of the new value and,
+ * for updates and deletes, the entry of the previous one. Bulk enrollment writes evict the counts of their
+ * courses, other JDBC writes clear the caches of the table.
+ */
+@Component
+@RequiredArgsConstructor
+public class LookupCacheEviction {
+
+    private static final Map<String, String> CACHE_OF_TABLE = Map.of(
+            "students", LookupCaches.STUDENTS_BY_EMAIL,
+            "instructors", LookupCaches.INSTRUCTORS_BY_EMAIL,
+            "courses", LookupCaches.COURSES_BY_NAME,
+            "enrollments", LookupCaches.ENROLLMENT_COUNT_BY_COURSE);
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        switch (event.entity()) {
+            case Student student -> evictIgnoringCase(LookupCaches.STUDENTS_BY_EMAIL, student.getEmail(),
+                    event.previous("email"));
+            case Instructor instructor -> evictIgnoringCase(LookupCaches.INSTRUCTORS_BY_EMAIL, instructor.getEmail(),
+                    event.previous("email"));
+            case Course course -> evictIgnoringCase(LookupCaches.COURSES_BY_NAME, course.getName(),
+                    event.previous("name"));
+            case Enrollment enrollment -> evict(LookupCaches.ENROLLMENT_COUNT_BY_COURSE, enrollment.getCourseId(),
+                    event.previous("courseId"));
+            default -> {
+            }
+        }
+    }
+
+    @EventListener
+    public void onEnrollmentsChanged(EnrollmentsChangedEvent event) {
+        if (event.type() == EntityChangedEvent.ChangeType.UPDATED) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(LookupCaches.ENROLLMENT_COUNT_BY_COURSE);
+        if (cache != null) {
+            event.courseIds().forEach(cache::evict);
+        }
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        String name = CACHE_OF_TABLE.get(event.table());
+        Cache cache = name == null ? null : cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void evictIgnoringCase(String name, String value, Object previous) {
+        evict(name, value == null ? null : LookupCaches.key(value),
+                previous instanceof String previousValue ? LookupCaches.key(previousValue) : null);
+    }
+
+    private void evict(String name, Object key, Object previousKey) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return;
+        }
+        if (key != null) {
+            cache.evict(key);
+        }
+        if (previousKey != null && !previousKey.equals(key)) {
+            cache.evict(previousKey);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import java.util.Locale;
+
+/**
+ * Application caches in front of the lookups hit by login and enrollment flows.
+ * Entries are ids and counts, never entities: a cached entity would be one detached instance shared by
+ * every caller, whose changes would not be saved and whose version would go stale.
+ * Concurrent misses of a key run a single query ({@code sync = true}); size and expiry are set by
+ * {@code spring.cache.caffeine.spec}. Committed writes evict the affected keys, see {@link LookupCacheEviction}.
+ * A miss loading a value from before a commit finishes before that commit's eviction removes the key, the
+ * short expiry bounds what any other missed eviction can leave behind.
+ */
+public final class LookupCaches {
+
+    public static final String STUDENTS_BY_EMAIL = "studentsByEmail";
+    public static final String INSTRUCTORS_BY_EMAIL = "instructorsByEmail";
+    public static final String COURSES_BY_NAME = "coursesByName";
+    public static final String ENROLLMENT_COUNT_BY_COURSE = "enrollmentCountByCourse";
+
+    /**
+     * Key of the case-insensitive lookups, spellings that differ only in case share an entry
+     */
+    static final String IGNORE_CASE_KEY = "T(at.spengergasse.onlinecourseplatform.persistence.LookupCaches).key(#p0)";
+
+    private LookupCaches() {
+    }
+
+    public static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,85 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries write transactions that lost an optimistic lock to a concurrent writer of the same
+ * {@code @Version}ed row. Every attempt is a complete transaction of its own: a failed attempt is rolled back
+ * entirely and the next one reads the current row again, so the change is applied exactly once, on top of
+ * the concurrent one. Attempts are spaced by a random delay below an exponentially growing bound, so
+ * colliding writers do not collide again in lockstep.
+ * <p>
+ * Conflicts, retries and updates given up are counted per entity type in {@code optimistic.lock.conflicts},
+ * {@code optimistic.lock.retries} and {@code optimistic.lock.failures}.
+ */
+@Component
+@Slf4j
+public class OptimisticRetry {
+
+    public static final int MAX_ATTEMPTS = 5;
+
+    private static final long BASE_BACKOFF_MILLIS = 10;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a write transaction, again after an optimistic locking failure, at most {@value #MAX_ATTEMPTS} times.
+     * The transaction has to read what it changes, a retry of a change computed from a stale copy fails again.
+     *
+     * @throws IllegalStateException             if called inside a transaction, whose stale reads a retry
+     *                                           could not refresh
+     * @throws OptimisticLockingFailureException if the last attempt failed as well
+     */
+    public <T> T call(Supplier<T> transaction) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Optimistic retries need their own transaction per attempt");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (OptimisticLockingFailureException e) {
+                String entity = entityOf(e);
+                meterRegistry.counter("optimistic.lock.conflicts", "entity", entity).increment();
+                if (attempt == MAX_ATTEMPTS) {
+                    meterRegistry.counter("optimistic.lock.failures", "entity", entity).increment();
+                    log.warn("Gave up a write of {} after {} optimistic locking failures", entity, attempt);
+                    throw e;
+                }
+                meterRegistry.counter("optimistic.lock.retries", "entity", entity).increment();
+                log.debug("Write of {} lost an optimistic lock, attempt {}", entity, attempt, e);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private static void backOff(int attempt) {
+        long bound = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off an optimistic retry", e);
+        }
+    }
+
+    private static String entityOf(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException failure && failure.getPersistentClassName() != null) {
+            String name = failure.getPersistentClassName();
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,40 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate keeps its second-level and query cache consistent with its own writes, version checks included.
+ * JDBC writes ({@link TableChangedEvent}) bypass it, so the cached entities of the table and all cached
+ * query results are dropped. Enrollments are not cached as entities, bulk enrollment writes only drop the
+ * query results.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEviction {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table != null && table.name().equals(event.table())) {
+                entityManagerFactory.getCache().evict(entity.getJavaType());
+            }
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    @EventListener
+    public void onEnrollmentsChanged(EnrollmentsChangedEvent event) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,17 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+/**
+ * Settings of the streaming finders. Their results are read through a forward-only cursor,
+ * {@value #FETCH_SIZE} rows per round trip, as read-only entities or DTOs that bypass the query cache.
+ * They have to be consumed inside a transaction and closed afterwards.
+ */
+public final class Streaming {
+
+    /**
+     * Rows fetched per round trip; MySQL only honours it with {@code useCursorFetch=true}
+     */
+    public static final String FETCH_SIZE = "1000";
+
+    private Streaming() {
+    }
+}
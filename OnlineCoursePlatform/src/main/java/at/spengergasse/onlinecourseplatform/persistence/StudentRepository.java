@@ -1,21 +1,38 @@
 package at.spengergasse.onlinecourseplatform.persistence;
 
 import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.StudentDtos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentSearch {
 
     List<Student> findByFirstNameContainingIgnoreCase(String firstName);
     List<Student> findByLastNameContainingIgnoreCase(String lastName);
     Optional<Student> findByEmailIgnoreCase(String email);
+    // Cached lookup; only the id is cached, callers load the student with findById
+    @Cacheable(cacheNames = LookupCaches.STUDENTS_BY_EMAIL, key = LookupCaches.IGNORE_CASE_KEY,
+            condition = "#p0 != null", sync = true)
+    @Query("SELECT s.id FROM Student s WHERE LOWER(s.email) = LOWER(:email)")
+    Optional<Long> findIdByEmailIgnoreCase(@Param("email") String email);
     boolean existsByEmailIgnoreCase(String email);
 
     List<Student> findByRegistrationDateBetween(LocalDate from, LocalDate to);
@@ -26,4 +43,39 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     List<Student> searchStudents(@Param("term") String searchTerm);
 
     long countByRegistrationDateAfter(LocalDate date);
-}
\ No newline at end of file
+
+    // Keyset pagination: each window continues after the last row of the previous one,
+    // so deep pages cost the same as the first page.
+
+    Window<Student> findAllByOrderById(ScrollPosition position, Limit limit);
+    Window<Student> findByFirstNameContainingIgnoreCaseOrderById(String firstName, ScrollPosition position,
+                                                                 Limit limit);
+    Window<Student> findByLastNameContainingIgnoreCaseOrderById(String lastName, ScrollPosition position,
+                                                                Limit limit);
+    Window<Student> findByRegistrationDateBetweenOrderByRegistrationDateAscIdAsc(LocalDate from, LocalDate to,
+                                                                                 ScrollPosition position,
+                                                                                 Limit limit);
+
+    // DTO projections: only the columns of the record are selected, no entity is loaded or managed.
+    // Like all query methods they run in the repository's read-only transactions.
+
+    Page<StudentDtos.Summary> findSummariesBy(Pageable pageable);
+    Page<StudentDtos.Summary> findSummariesByRegistrationDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+    List<StudentDtos.Summary> findSummariesByIdInOrderById(Collection<Long> ids);
+    Optional<StudentDtos.Dto> findDtoById(Long id);
+
+    // Streaming: rows are read through a cursor instead of being collected into a list, see Streaming
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Student> streamAllByOrderById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Streaming.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<StudentDtos.Dto> streamDtosByOrderById();
+}
@@ -0,0 +1,21 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Indexed variants of {@link StudentRepository#searchStudents(String)}; results are ordered by id
+ */
+public interface StudentSearch {
+
+    /**
+     * Ids of the students whose first name, last name or email contains the term (case-insensitive)
+     */
+    Page<Long> searchStudentIds(String term, Pageable pageable);
+
+    /**
+     * Students whose first name, last name or email contains the term (case-insensitive)
+     */
+    Page<Student> searchStudents(String term, Pageable pageable);
+}
@@ -0,0 +1,36 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.search.TrigramSearchSupport;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+class StudentSearchImpl extends TrigramSearchSupport<Student> implements StudentSearch {
+
+    StudentSearchImpl(EntityManager entityManager) {
+        super(entityManager, Student.class, "students", List.of("firstName", "lastName", "email"));
+    }
+
+    @Override
+    protected String[] values(Student student) {
+        return new String[]{student.getFirstName(), student.getLastName(), student.getEmail()};
+    }
+
+    @Override
+    protected Long id(Student student) {
+        return student.getId();
+    }
+
+    @Override
+    public Page<Long> searchStudentIds(String term, Pageable pageable) {
+        return searchIds(term, pageable);
+    }
+
+    @Override
+    public Page<Student> searchStudents(String term, Pageable pageable) {
+        return search(term, pageable);
+    }
+}
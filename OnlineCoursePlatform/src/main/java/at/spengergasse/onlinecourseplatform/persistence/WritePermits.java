@@ -0,0 +1,62 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds concurrent write transactions to one less than the connection pool size.
+ * An insert of a {@link at.spengergasse.onlinecourseplatform.domain.PooledId} entity holds its connection
+ * while the id generator borrows a second one for the next id block. If every pooled connection belonged to
+ * such a writer, the generator would wait for a connection that is never returned. The Tomcat worker pool
+ * used to be the only bound on writers, with virtual threads there is none, so writers take a permit first.
+ */
+@Component
+public class WritePermits {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public WritePermits(DataSource dataSource) throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            this.permits = new Semaphore(Math.max(1, pool.getMaximumPoolSize() - 1), true);
+            this.timeoutMillis = pool.getConnectionTimeout();
+        } else {
+            this.permits = new Semaphore(Integer.MAX_VALUE);
+            this.timeoutMillis = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Run a write transaction once a permit is free; waits as long as for a pooled connection
+     *
+     * @throws CannotGetJdbcConnectionException if no permit became free in time
+     */
+    public <T> T call(Supplier<T> write) {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CannotGetJdbcConnectionException(
+                        "No write permit available within " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotGetJdbcConnectionException("Interrupted while waiting for a write permit");
+        }
+        try {
+            return write.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+}
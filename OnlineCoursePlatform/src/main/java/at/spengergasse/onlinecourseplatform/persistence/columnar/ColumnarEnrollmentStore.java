@@ -0,0 +1,189 @@
+package at.spengergasse.onlinecourseplatform.persistence.columnar;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.Streaming;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory columnar copy of the enrollments table for analytic reads, enabled with
+ * {@code analytics.columnar.enabled=true}. It is filled by a streaming scan at startup and follows committed
+ * enrollment changes. The courses of bulk enrollment writes are reloaded one by one, other JDBC writes to the
+ * table reload everything on the next read.
+ * <p>
+ * A load scans into new columns while the readers keep the current ones. Changes received during the scan are
+ * buffered and replayed on the new columns before they replace the current ones; a load overtaken by a
+ * table change scans again.
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ColumnarEnrollmentStore {
+
+    private static final String SELECT_ENROLLMENTS = "SELECT id, student_id, course_id, grade FROM enrollments";
+    private static final String SELECT_ENROLLMENTS_OF_COURSE = SELECT_ENROLLMENTS + " WHERE course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile EnrollmentColumns columns = new EnrollmentColumns();
+    private volatile boolean loaded;
+    // Held during the table scan; unlike a monitor it does not pin the carrier of a waiting virtual thread
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // Guards loaded, generation and pending against the event listeners
+    private final ReentrantLock changeLock = new ReentrantLock();
+    // Counts table changes, a load is only complete if none happened during its scan
+    private long generation;
+    // Entity and bulk changes received during the scan of a load, null while no load scans
+    private List<Object> pending;
+
+    /**
+     * The up to date columns
+     */
+    public EnrollmentColumns columns() {
+        load();
+        return columns;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        load();
+    }
+
+    @EventListener
+    public void onEnrollmentChanged(EntityChangedEvent event) {
+        if (event.concerns(Enrollment.class)) {
+            receive(event);
+        }
+    }
+
+    @EventListener
+    public void onEnrollmentsChanged(EnrollmentsChangedEvent event) {
+        receive(event);
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if ("enrollments".equals(event.table())) {
+            changeLock.lock();
+            try {
+                generation++;
+                loaded = false;
+            } finally {
+                changeLock.unlock();
+            }
+        }
+    }
+
+    private void receive(Object event) {
+        changeLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            } else if (loaded) {
+                apply(columns, event);
+            }
+            // Otherwise the next load reads the change from the table
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    private void apply(EnrollmentColumns target, Object event) {
+        switch (event) {
+            case EntityChangedEvent change -> {
+                Enrollment enrollment = (Enrollment) change.entity();
+                if (change.type() == EntityChangedEvent.ChangeType.DELETED) {
+                    target.remove(enrollment.getId());
+                } else {
+                    target.put(enrollment.getId(), enrollment.getStudentId(), enrollment.getCourseId(),
+                            enrollment.getGrade());
+                }
+            }
+            case EnrollmentsChangedEvent change -> {
+                for (Long courseId : change.courseIds()) {
+                    List<Enrollment> enrollments = jdbcTemplate.query(SELECT_ENROLLMENTS_OF_COURSE,
+                            (rs, rowNum) -> new Enrollment(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                                    rs.getObject(4, Double.class), null), courseId);
+                    target.replaceCourse(courseId, enrollments);
+                }
+            }
+            default -> throw new IllegalArgumentException("Not an enrollment change: " + event);
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            while (!loaded) {
+                scan();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void scan() {
+        long startTime = System.currentTimeMillis();
+        long scanned;
+        changeLock.lock();
+        try {
+            scanned = generation;
+            pending = new ArrayList<>();
+        } finally {
+            changeLock.unlock();
+        }
+        EnrollmentColumns scan = new EnrollmentColumns();
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(SELECT_ENROLLMENTS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(Integer.parseInt(Streaming.FETCH_SIZE));
+                return statement;
+            }, rs -> {
+                double grade = rs.getDouble(4);
+                Double nullableGrade = rs.wasNull() ? null : grade;
+                scan.put(rs.getLong(1), rs.getLong(2), rs.getLong(3), nullableGrade);
+            });
+        } catch (RuntimeException e) {
+            changeLock.lock();
+            try {
+                pending = null;
+            } finally {
+                changeLock.unlock();
+            }
+            throw e;
+        }
+        changeLock.lock();
+        try {
+            // Changes committed before the scan read them are replayed as well, replaying is idempotent
+            pending.forEach(event -> apply(scan, event));
+            pending = null;
+            if (generation == scanned) {
+                columns = scan;
+                loaded = true;
+            }
+        } finally {
+            changeLock.unlock();
+        }
+        log.info("Loaded {} enrollments into the columnar store in {} ms", scan.size(),
+                System.currentTimeMillis() - startTime);
+    }
+}
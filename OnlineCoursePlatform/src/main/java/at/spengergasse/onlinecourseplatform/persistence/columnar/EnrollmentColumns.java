@@ -0,0 +1,411 @@
+package at.spengergasse.onlinecourseplatform.persistence.columnar;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Enrollments stored column by column in primitive arrays: ids, student ids, course ids,
+ * grades as floats and bitmaps for live rows and rows with a grade.
+ * Row numbers per course and per student make lookups by either key touch only their rows;
+ * filters over all rows are plain loops over the bitmaps and the grade column.
+ * Deleted rows are only marked, the arrays are compacted once a quarter of the rows are dead.
+ */
+public class EnrollmentColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] studentIds = new long[INITIAL_CAPACITY];
+    private long[] courseIds = new long[INITIAL_CAPACITY];
+    private float[] grades = new float[INITIAL_CAPACITY];
+    private long[] live = new long[INITIAL_CAPACITY / 64];
+    private long[] graded = new long[INITIAL_CAPACITY / 64];
+    private int rows;
+    private int deleted;
+
+    private final Map<Long, Integer> rowOf = new HashMap<>();
+    private final Map<Long, RowList> byCourse = new HashMap<>();
+    private final Map<Long, RowList> byStudent = new HashMap<>();
+
+    /**
+     * Add an enrollment or replace its values
+     */
+    public void put(long id, long studentId, long courseId, Double grade) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowOf.get(id);
+            int row;
+            if (existing == null) {
+                row = append(id);
+            } else {
+                row = existing;
+                if (courseIds[row] == courseId && studentIds[row] == studentId) {
+                    setGrade(row, grade);
+                    return;
+                }
+                unlink(row);
+            }
+            studentIds[row] = studentId;
+            courseIds[row] = courseId;
+            setGrade(row, grade);
+            byCourse.computeIfAbsent(courseId, c -> new RowList()).add(row);
+            byStudent.computeIfAbsent(studentId, s -> new RowList()).add(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf.remove(id);
+            if (row == null) {
+                return;
+            }
+            unlink(row);
+            clear(live, row);
+            deleted++;
+            if (deleted >= MIN_COMPACTION && deleted * 4 >= rows) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the enrollments of a course, readers see either all old or all new ones
+     */
+    public void replaceCourse(long courseId, List<Enrollment> enrollments) {
+        lock.writeLock().lock();
+        try {
+            RowList course = byCourse.get(courseId);
+            if (course != null) {
+                // Ids first, removing may compact the rows
+                long[] removed = new long[course.size];
+                for (int i = 0; i < removed.length; i++) {
+                    removed[i] = ids[course.rows[i]];
+                }
+                for (long id : removed) {
+                    remove(id);
+                }
+            }
+            for (Enrollment enrollment : enrollments) {
+                put(enrollment.getId(), enrollment.getStudentId(), enrollment.getCourseId(), enrollment.getGrade());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(live, 0);
+            Arrays.fill(graded, 0);
+            rows = 0;
+            deleted = 0;
+            rowOf.clear();
+            byCourse.clear();
+            byStudent.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of enrollments
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows - deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countOfCourse(long courseId) {
+        lock.readLock().lock();
+        try {
+            RowList list = byCourse.get(courseId);
+            return list == null ? 0 : list.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countOfStudent(long studentId) {
+        lock.readLock().lock();
+        try {
+            RowList list = byStudent.get(studentId);
+            return list == null ? 0 : list.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average grade of the course's graded enrollments, {@code null} if there are none
+     */
+    public Double averageGradeOfCourse(long courseId) {
+        lock.readLock().lock();
+        try {
+            return average(byCourse.get(courseId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average grade of the student's graded enrollments, {@code null} if there are none
+     */
+    public Double averageGradeOfStudent(long studentId) {
+        lock.readLock().lock();
+        try {
+            return average(byStudent.get(studentId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average over all graded enrollments, {@code null} if there are none
+     */
+    public Double averageGrade() {
+        lock.readLock().lock();
+        try {
+            double sum = 0;
+            long count = 0;
+            for (int word = 0, words = words(rows); word < words; word++) {
+                long bits = live[word] & graded[word];
+                count += Long.bitCount(bits);
+                while (bits != 0) {
+                    sum += grades[word << 6 | Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                }
+            }
+            return count == 0 ? null : sum / count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of enrollments with a grade between min and max, both inclusive
+     */
+    public long countGradesBetween(double min, double max) {
+        lock.readLock().lock();
+        try {
+            // Grades are stored as floats, compare with bounds rounded the same way
+            float lower = (float) min;
+            float upper = (float) max;
+            long count = 0;
+            for (int word = 0, words = words(rows); word < words; word++) {
+                long bits = live[word] & graded[word];
+                while (bits != 0) {
+                    float grade = grades[word << 6 | Long.numberOfTrailingZeros(bits)];
+                    if (grade >= lower && grade <= upper) {
+                        count++;
+                    }
+                    bits &= bits - 1;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of enrollments without a grade
+     */
+    public long countUngraded() {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (int word = 0, words = words(rows); word < words; word++) {
+                count += Long.bitCount(live[word] & ~graded[word]);
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average grade per course, courses without graded enrollments are left out
+     */
+    public Map<Long, Double> averageGradeByCourse() {
+        return averageGradeBy(byCourse);
+    }
+
+    /**
+     * Average grade per student, students without graded enrollments are left out
+     */
+    public Map<Long, Double> averageGradeByStudent() {
+        return averageGradeBy(byStudent);
+    }
+
+    private Map<Long, Double> averageGradeBy(Map<Long, RowList> index) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> averages = new HashMap<>();
+            index.forEach((key, list) -> {
+                Double average = average(list);
+                if (average != null) {
+                    averages.put(key, average);
+                }
+            });
+            return averages;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Double average(RowList list) {
+        if (list == null) {
+            return null;
+        }
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < list.size; i++) {
+            int row = list.rows[i];
+            if (isSet(graded, row)) {
+                sum += grades[row];
+                count++;
+            }
+        }
+        return count == 0 ? null : sum / count;
+    }
+
+    private int append(long id) {
+        if (rows == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            courseIds = Arrays.copyOf(courseIds, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            live = Arrays.copyOf(live, words(capacity));
+            graded = Arrays.copyOf(graded, words(capacity));
+        }
+        int row = rows++;
+        ids[row] = id;
+        set(live, row);
+        rowOf.put(id, row);
+        return row;
+    }
+
+    private void setGrade(int row, Double grade) {
+        if (grade == null) {
+            clear(graded, row);
+            grades[row] = 0;
+        } else {
+            set(graded, row);
+            grades[row] = grade.floatValue();
+        }
+    }
+
+    private void unlink(int row) {
+        unlink(byCourse, courseIds[row], row);
+        unlink(byStudent, studentIds[row], row);
+    }
+
+    private static void unlink(Map<Long, RowList> index, long key, int row) {
+        RowList list = index.get(key);
+        list.remove(row);
+        if (list.size == 0) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Move the live rows to the front, keeping their order, and rebuild the row numbers
+     */
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!isSet(live, row)) {
+                continue;
+            }
+            ids[target] = ids[row];
+            studentIds[target] = studentIds[row];
+            courseIds[target] = courseIds[row];
+            grades[target] = grades[row];
+            boolean hasGrade = isSet(graded, row);
+            clear(graded, target);
+            if (hasGrade) {
+                set(graded, target);
+            }
+            target++;
+        }
+        Arrays.fill(live, 0);
+        Arrays.fill(graded, words(target), graded.length, 0);
+        if (target % 64 != 0) {
+            graded[target >> 6] &= (1L << target) - 1;
+        }
+        rows = target;
+        deleted = 0;
+        rowOf.clear();
+        byCourse.clear();
+        byStudent.clear();
+        for (int row = 0; row < rows; row++) {
+            set(live, row);
+            rowOf.put(ids[row], row);
+            byCourse.computeIfAbsent(courseIds[row], c -> new RowList()).add(row);
+            byStudent.computeIfAbsent(studentIds[row], s -> new RowList()).add(row);
+        }
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >> 6;
+    }
+
+    private static boolean isSet(long[] bitmap, int row) {
+        return (bitmap[row >> 6] & 1L << row) != 0;
+    }
+
+    private static void set(long[] bitmap, int row) {
+        bitmap[row >> 6] |= 1L << row;
+    }
+
+    private static void clear(long[] bitmap, int row) {
+        bitmap[row >> 6] &= ~(1L << row);
+    }
+
+    /**
+     * Sorted, growable list of row numbers
+     */
+    private static final class RowList {
+
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            int index = size > 0 && rows[size - 1] > row ? -Arrays.binarySearch(rows, 0, size, row) - 1 : size;
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            System.arraycopy(rows, index, rows, index + 1, size - index);
+            rows[index] = row;
+            size++;
+        }
+
+        void remove(int row) {
+            int index = Arrays.binarySearch(rows, 0, size, row);
+            if (index >= 0) {
+                System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package at.spengergasse.onlinecourseplatform.persistence.events;
+
+import java.util.Set;
+
+/**
+ * Enrollments were inserted, deleted or regraded with plain JDBC or a bulk JPQL statement, bypassing the
+ * {@link EntityChangedEvent}s of single entities. Unlike a {@link TableChangedEvent} of the enrollments table
+ * it names the courses and students whose enrollments changed, so listeners keeping derived state only reload
+ * those. Published after the writes committed.
+ *
+ * @param type       kind of change; updates changed grades only
+ * @param courseIds  courses of the changed enrollments
+ * @param studentIds students of the changed enrollments
+ */
+public record EnrollmentsChangedEvent(EntityChangedEvent.ChangeType type, Set<Long> courseIds, Set<Long> studentIds) {
+
+    public EnrollmentsChangedEvent {
+        courseIds = Set.copyOf(courseIds);
+        studentIds = Set.copyOf(studentIds);
+    }
+}
@@ -0,0 +1,145 @@
+package at.spengergasse.onlinecourseplatform.persistence.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns Hibernate's post-commit entity events into {@link EntityChangedEvent}s on the Spring event bus,
+ * and its flush events into {@link EntityFlushedEvent}s.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityChangePublisher implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        FlushListener flushListener = new FlushListener();
+        registry.appendListeners(EventType.POST_INSERT, flushListener);
+        registry.appendListeners(EventType.POST_UPDATE, flushListener);
+        registry.appendListeners(EventType.POST_DELETE, flushListener);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(EntityChangedEvent.ChangeType.INSERTED, event.getEntity(), event.getPersister(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(EntityChangedEvent.ChangeType.UPDATED, event.getEntity(), event.getPersister(), event.getOldState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(EntityChangedEvent.ChangeType.DELETED, event.getEntity(), event.getPersister(),
+                event.getDeletedState());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was committed, nothing to publish
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was committed, nothing to publish
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was committed, nothing to publish
+    }
+
+    private void publish(EntityChangedEvent.ChangeType type, Object entity, EntityPersister persister,
+                         Object[] state) {
+        try {
+            eventPublisher.publishEvent(new EntityChangedEvent(type, entity, previousState(persister, state)));
+        } catch (RuntimeException e) {
+            // The transaction is already committed; a failing listener must not fail the caller
+            log.warn("Listener failed on {} of {}", type, entity, e);
+        }
+    }
+
+    private static Map<String, Object> previousState(EntityPersister persister, Object[] state) {
+        if (state == null) {
+            return Collections.emptyMap();
+        }
+        String[] names = persister.getPropertyNames();
+        Map<String, Object> previousState = new HashMap<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            previousState.put(names[i], state[i]);
+        }
+        return previousState;
+    }
+
+    /**
+     * Hibernate's in-transaction events; a separate listener since they share their methods with the post-commit
+     * events
+     */
+    private final class FlushListener implements PostInsertEventListener, PostUpdateEventListener,
+            PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            publish(EntityChangedEvent.ChangeType.INSERTED, event.getEntity(), event.getPersister(), null);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            publish(EntityChangedEvent.ChangeType.UPDATED, event.getEntity(), event.getPersister(),
+                    event.getOldState());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            publish(EntityChangedEvent.ChangeType.DELETED, event.getEntity(), event.getPersister(),
+                    event.getDeletedState());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void publish(EntityChangedEvent.ChangeType type, Object entity, EntityPersister persister,
+                             Object[] state) {
+            eventPublisher.publishEvent(new EntityFlushedEvent(type, entity, previousState(persister, state)));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package at.spengergasse.onlinecourseplatform.persistence.events;
+
+import java.util.Map;
+
+/**
+ * A committed insert, update or delete of a single entity through JPA.
+ * Published after the transaction committed, so listeners never see rolled back changes.
+ *
+ * @param type          kind of change
+ * @param entity        the entity as it was written; for deletes as it was before the delete
+ * @param previousState property values before an update or delete, empty for inserts
+ *                      and for updates of entities whose loaded state is unknown
+ */
+public record EntityChangedEvent(ChangeType type, Object entity, Map<String, Object> previousState) {
+
+    public enum ChangeType {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    public boolean concerns(Class<?> entityType) {
+        return entityType.isInstance(entity);
+    }
+
+    /**
+     * Value of a property before the change, or {@code null} if unknown
+     */
+    public Object previous(String property) {
+        return previousState.get(property);
+    }
+}
@@ -0,0 +1,28 @@
+package at.spengergasse.onlinecourseplatform.persistence.events;
+
+import java.util.Map;
+
+/**
+ * An insert, update or delete of a single entity through JPA was flushed, its transaction has not committed yet
+ * and may still roll back. Published inside the writing transaction, the {@link EntityChangedEvent} of a committed
+ * change follows after the commit. Listeners use it to learn which state is about to change, e.g. to distrust
+ * reads of it until the commit was applied.
+ *
+ * @param type          kind of change
+ * @param entity        the entity as it was written; for deletes as it was before the delete
+ * @param previousState property values before an update or delete, empty for inserts
+ *                      and for updates of entities whose loaded state is unknown
+ */
+public record EntityFlushedEvent(EntityChangedEvent.ChangeType type, Object entity, Map<String, Object> previousState) {
+
+    public boolean concerns(Class<?> entityType) {
+        return entityType.isInstance(entity);
+    }
+
+    /**
+     * Value of a property before the change, or {@code null} if unknown
+     */
+    public Object previous(String property) {
+        return previousState.get(property);
+    }
+}
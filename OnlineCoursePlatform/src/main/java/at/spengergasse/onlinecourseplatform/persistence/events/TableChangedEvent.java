@@ -0,0 +1,11 @@
+package at.spengergasse.onlinecourseplatform.persistence.events;
+
+/**
+ * Rows of a table were written with plain JDBC or a bulk JPQL statement, bypassing the
+ * {@link EntityChangedEvent}s of single entities.
+ * Listeners keeping derived state have to reload the table.
+ *
+ * @param table name of the table, e.g. {@code courses}
+ */
+public record TableChangedEvent(String table) {
+}
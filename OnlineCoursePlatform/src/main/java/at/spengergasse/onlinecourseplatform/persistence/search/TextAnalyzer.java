@@ -0,0 +1,46 @@
+package at.spengergasse.onlinecourseplatform.persistence.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns text into the terms the search indexes store:
+ * lower-cased, without accents, split at everything that is not a letter or a digit.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Lower-case the text and strip accents, so "Künstliche" and "kunstliche" compare equal
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokens(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean partOfToken = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (partOfToken && start < 0) {
+                start = i;
+            } else if (!partOfToken && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,210 @@
+package at.spengergasse.onlinecourseplatform.persistence.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Substring index: every indexed value is split into its three character sequences (trigrams),
+ * each trigram points to the sorted ids of the documents containing it.
+ * A search intersects the posting lists of the term's trigrams and only compares the remaining
+ * candidates with the term, which gives the semantics of {@code LOWER(field) LIKE '%term%'}
+ * without looking at every row. Terms shorter than three characters are compared with every document.
+ */
+public class TrigramIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IdList> postings = new HashMap<>();
+    // document id -> normalized field values
+    private final Map<Long, String[]> documents = new HashMap<>();
+
+    /**
+     * Add a document or replace its values; null values are ignored
+     */
+    public void put(long id, String... values) {
+        String[] normalized = Arrays.stream(values).map(TextAnalyzer::normalize).toArray(String[]::new);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            documents.put(id, normalized);
+            for (long trigram : trigrams(normalized)) {
+                postings.computeIfAbsent(trigram, t -> new IdList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the documents with a value containing the term, in ascending order
+     */
+    public Page<Long> search(String term, Pageable pageable) {
+        String normalized = TextAnalyzer.normalize(term);
+        List<Long> matches;
+        lock.readLock().lock();
+        try {
+            matches = normalized.length() < 3 ? scan(normalized) : lookup(normalized);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    private List<Long> lookup(String term) {
+        long[] termTrigrams = trigrams(new String[]{term});
+        IdList[] lists = new IdList[termTrigrams.length];
+        for (int i = 0; i < termTrigrams.length; i++) {
+            lists[i] = postings.get(termTrigrams[i]);
+            if (lists[i] == null) {
+                return List.of();
+            }
+        }
+        // Walk the shortest list and probe the others
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        List<Long> matches = new ArrayList<>();
+        for (int i = 0; i < lists[0].size; i++) {
+            long id = lists[0].ids[i];
+            boolean candidate = true;
+            for (int l = 1; l < lists.length && candidate; l++) {
+                candidate = lists[l].contains(id);
+            }
+            if (candidate && contains(documents.get(id), term)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private List<Long> scan(String term) {
+        List<Long> matches = new ArrayList<>();
+        documents.forEach((id, values) -> {
+            if (contains(values, term)) {
+                matches.add(id);
+            }
+        });
+        matches.sort(null);
+        return matches;
+    }
+
+    private void removeDocument(long id) {
+        String[] values = documents.remove(id);
+        if (values == null) {
+            return;
+        }
+        for (long trigram : trigrams(values)) {
+            IdList ids = postings.get(trigram);
+            ids.remove(id);
+            if (ids.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static boolean contains(String[] values, String term) {
+        for (String value : values) {
+            if (value.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Distinct trigrams of all values, three chars packed into one long
+     */
+    private static long[] trigrams(String[] values) {
+        long[] trigrams = new long[Arrays.stream(values).mapToInt(v -> Math.max(0, v.length() - 2)).sum()];
+        int count = 0;
+        for (String value : values) {
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                trigrams[count++] = (long) value.charAt(i) << 32 | (long) value.charAt(i + 1) << 16
+                        | value.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(trigrams, 0, count).distinct().toArray();
+    }
+
+    /**
+     * Sorted, growable list of primitive ids
+     */
+    private static final class IdList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            // Ids mostly arrive in ascending order, which makes this an append
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insert(-index - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insert(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
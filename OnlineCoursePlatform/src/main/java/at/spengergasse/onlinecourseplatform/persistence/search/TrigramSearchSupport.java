@@ -0,0 +1,171 @@
+package at.spengergasse.onlinecourseplatform.persistence.search;
+
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Base of the repository fragments answering "contains" searches from a {@link TrigramIndex}.
+ * The index is loaded on first use and then follows committed entity changes;
+ * JDBC writes to the table ({@link TableChangedEvent}) make it reload on the next search.
+ * A load scans into a new index while entity changes are buffered; the buffered changes are applied to the
+ * new index before it replaces the old one, and a load overtaken by a table change scans again.
+ *
+ * @param <T> indexed entity
+ */
+@Slf4j
+public abstract class TrigramSearchSupport<T> {
+
+    private final EntityManager entityManager;
+    private final Class<T> entityType;
+    private final String table;
+    private final List<String> fields;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile boolean loaded;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // Guards loaded, generation and pending against the event listeners
+    private final Object changeLock = new Object();
+    // Counts table changes, a load is only complete if none happened during its scan
+    private long generation;
+    // Entity changes received during the scan of a load, null while no load scans
+    private List<EntityChangedEvent> pending;
+
+    protected TrigramSearchSupport(EntityManager entityManager, Class<T> entityType, String table,
+                                   List<String> fields) {
+        this.entityManager = entityManager;
+        this.entityType = entityType;
+        this.table = table;
+        this.fields = fields;
+    }
+
+    /**
+     * Values of the indexed fields, in the order of the field list
+     */
+    protected abstract String[] values(T entity);
+
+    protected abstract Long id(T entity);
+
+    protected Page<Long> searchIds(String term, Pageable pageable) {
+        load();
+        return index.search(term, pageable);
+    }
+
+    protected Page<T> search(String term, Pageable pageable) {
+        Page<Long> ids = searchIds(term, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, T> entities = entityManager.createQuery(
+                        "SELECT e FROM " + entityType.getSimpleName() + " e WHERE e.id IN :ids", entityType)
+                .setParameter("ids", ids.getContent())
+                .getResultList().stream()
+                .collect(Collectors.toMap(this::id, Function.identity()));
+        List<T> ordered = ids.stream().map(entities::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(ordered, pageable, ids.getTotalElements());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        load();
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!event.concerns(entityType)) {
+            return;
+        }
+        synchronized (changeLock) {
+            if (pending != null) {
+                pending.add(event);
+            } else if (loaded) {
+                apply(index, event);
+            }
+            // Otherwise the next load reads the change from the table
+        }
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if (table.equals(event.table())) {
+            synchronized (changeLock) {
+                generation++;
+                loaded = false;
+            }
+        }
+    }
+
+    private void apply(TrigramIndex target, EntityChangedEvent event) {
+        T entity = entityType.cast(event.entity());
+        if (event.type() == EntityChangedEvent.ChangeType.DELETED) {
+            target.remove(id(entity));
+        } else {
+            target.put(id(entity), values(entity));
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            while (!loaded) {
+                scan();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void scan() {
+        long startTime = System.currentTimeMillis();
+        long scanned;
+        synchronized (changeLock) {
+            scanned = generation;
+            pending = new ArrayList<>();
+        }
+        TrigramIndex scan = new TrigramIndex();
+        try {
+            String select = "SELECT e.id, e." + String.join(", e.", fields) +
+                    " FROM " + entityType.getSimpleName() + " e ORDER BY e.id";
+            for (Object[] row : entityManager.createQuery(select, Object[].class).getResultList()) {
+                String[] values = new String[row.length - 1];
+                for (int i = 1; i < row.length; i++) {
+                    values[i - 1] = (String) row[i];
+                }
+                scan.put((Long) row[0], values);
+            }
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (changeLock) {
+            // Changes committed before the scan read them are applied again, puts and removes are idempotent
+            pending.forEach(event -> apply(scan, event));
+            pending = null;
+            if (generation == scanned) {
+                index = scan;
+                loaded = true;
+            }
+        }
+        log.info("Indexed {} {} for substring search in {} ms", scan.size(), table,
+                System.currentTimeMillis() - startTime);
+    }
+}
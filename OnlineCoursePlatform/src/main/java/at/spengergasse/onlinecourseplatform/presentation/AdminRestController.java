@@ -0,0 +1,103 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.config.seeding.CsvBulkLoader;
+import at.spengergasse.onlinecourseplatform.config.seeding.IngestResult;
+import at.spengergasse.onlinecourseplatform.service.enrollment.SeatReservations;
+import at.spengergasse.onlinecourseplatform.service.export.ExportService;
+import at.spengergasse.onlinecourseplatform.service.grades.GradeImportResult;
+import at.spengergasse.onlinecourseplatform.service.grades.GradeImportService;
+import at.spengergasse.onlinecourseplatform.service.stats.GradeStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.ToLongFunction;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminRestController {
+
+    private final CsvBulkLoader bulkLoader;
+    private final ExportService exportService;
+    private final GradeStatistics gradeStatistics;
+    private final GradeImportService gradeImportService;
+    private final SeatReservations seatReservations;
+
+    /**
+     * Bulk import a CSV file into a table; the header line names the columns. Lists rejected records
+     */
+    @PostMapping(value = "/import/{table}", consumes = "text/csv")
+    public IngestResult importCsv(@PathVariable String table, InputStream csv) throws IOException {
+        return bulkLoader.importCsv(table, csv);
+    }
+
+    /**
+     * Apply grades from a CSV file with the columns student_id, course_id and grade; lists rejected records
+     */
+    @PostMapping(value = "/import/grades", consumes = "text/csv")
+    public GradeImportResult importGrades(InputStream csv) throws IOException {
+        return gradeImportService.importGrades(csv);
+    }
+
+    /**
+     * Export all enrollments as CSV; the file can be imported again
+     */
+    @GetMapping(value = "/export/enrollments", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments() {
+        return csv("enrollments.csv", exportService::exportEnrollments);
+    }
+
+    /**
+     * Export all students as CSV; the file can be imported again
+     */
+    @GetMapping(value = "/export/students", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportStudents() {
+        return csv("students.csv", exportService::exportStudents);
+    }
+
+    /**
+     * Recompute the grade statistics of all courses and students from the enrollments table
+     */
+    @PostMapping("/statistics/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildStatistics() {
+        gradeStatistics.rebuild();
+    }
+
+    /**
+     * Recount the seats taken in all courses with a capacity from the enrollments table
+     */
+    @PostMapping("/seats/reconcile")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void reconcileSeats() {
+        seatReservations.reconcileAll();
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csv(String fileName, ToLongFunction<Writer> export) {
+        StreamingResponseBody body = out -> export.applyAsLong(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleInvalidImport(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,34 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.CourseDtos;
+import at.spengergasse.onlinecourseplatform.service.search.CourseSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read API of the course catalog. Searches are answered by the in-memory course index, the courses table
+ * is only read for the courses of the requested page.
+ */
+@RestController
+@RequestMapping("/api/courses")
+@RequiredArgsConstructor
+public class CourseRestController {
+
+    private final CourseSearchService courseSearchService;
+
+    /**
+     * Courses whose name or description contains words starting with every word of the query,
+     * most relevant first
+     */
+    @GetMapping("/search")
+    public PagedModel<CourseDtos.Dto> searchCourses(@RequestParam("q") String query,
+                                                    @PageableDefault(size = 20) Pageable pageable) {
+        return new PagedModel<>(courseSearchService.search(query, pageable).map(CourseDtos.Dto::new));
+    }
+}
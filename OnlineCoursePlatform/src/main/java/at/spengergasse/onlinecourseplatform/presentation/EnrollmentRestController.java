@@ -0,0 +1,158 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos;
+import at.spengergasse.onlinecourseplatform.service.enrollment.EnrollmentConflictException;
+import at.spengergasse.onlinecourseplatform.service.enrollment.EnrollmentService;
+import at.spengergasse.onlinecourseplatform.service.export.JsonExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/enrollments")
+@RequiredArgsConstructor
+public class EnrollmentRestController {
+
+    private final EnrollmentService enrollmentService;
+    private final EnrollmentRepository enrollmentRepository;
+    private final JsonExportService jsonExportService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EnrollmentDtos.Dto> getEnrollment(@PathVariable Long id) {
+        return ResponseEntity.of(enrollmentRepository.findDtoById(id));
+    }
+
+    /**
+     * Enroll a student in a course; 404 if either does not exist, 409 if the student is already enrolled
+     * or the course is full
+     */
+    @PostMapping
+    public ResponseEntity<EnrollmentDtos.Dto> enroll(@Valid @RequestBody EnrollmentDtos.Enroll request) {
+        EnrollmentDtos.Dto enrollment = enrollmentService.enroll(request.studentId(), request.courseId());
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(enrollment.id()).toUri())
+                .body(enrollment);
+    }
+
+    /**
+     * Set or remove the grade of an enrollment; 404 if it does not exist,
+     * 409 if concurrent edits kept winning over every retry
+     */
+    @PutMapping("/{id}/grade")
+    public EnrollmentDtos.Dto grade(@PathVariable Long id, @Valid @RequestBody EnrollmentDtos.Grade request) {
+        return enrollmentService.grade(id, request.grade());
+    }
+
+    /**
+     * Enroll many (student, course) pairs; the result of every pair is reported in request order
+     */
+    @PostMapping("/bulk")
+    public List<EnrollmentDtos.BulkResult> enrollAll(@RequestBody List<EnrollmentDtos.Enroll> pairs) {
+        return enrollmentService.enrollAll(pairs);
+    }
+
+    /**
+     * Delete all enrollments of a course or of a student; returns the number of deleted enrollments
+     */
+    @DeleteMapping
+    public long deleteEnrollments(@RequestParam(required = false) Long courseId,
+                                  @RequestParam(required = false) Long studentId) {
+        if ((courseId == null) == (studentId == null)) {
+            throw new IllegalArgumentException("Delete by course or by student");
+        }
+        return courseId != null ? enrollmentService.deleteByCourse(courseId)
+                : enrollmentService.deleteByStudent(studentId);
+    }
+
+    /**
+     * Enrollments in id order, optionally of one course or one student, written while they are read;
+     * NDJSON if accepted, otherwise a JSON array
+     */
+    @GetMapping(value = "/stream", produces = {JsonStreamResponses.NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamEnrollments(
+            @RequestParam(required = false) Long courseId, @RequestParam(required = false) Long studentId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Checked before the response starts, the stream itself can no longer report it
+        if (courseId != null && studentId != null) {
+            throw new IllegalArgumentException("Filter by course or by student, not both");
+        }
+        return JsonStreamResponses.of(accept, objectMapper,
+                out -> jsonExportService.streamEnrollments(courseId, studentId, out));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleInvalidRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public String handleNotFound(NoSuchElementException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler(EnrollmentConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleConflict(EnrollmentConflictException e) {
+        return e.getMessage();
+    }
+
+    /**
+     * A concurrent enrollment of the same pair won the unique constraint
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleDuplicateEnrollment(DuplicateKeyException e) {
+        return "Student is already enrolled in the course";
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleConcurrentEdit(OptimisticLockingFailureException e) {
+        return "The enrollment was changed concurrently, try again";
+    }
+
+    /**
+     * Enrollments in a course that fills up compete for its seats, see
+     * {@link at.spengergasse.onlinecourseplatform.service.enrollment.SeatReservations}
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleLockConflict(PessimisticLockingFailureException e) {
+        return "The course is busy, try again";
+    }
+
+    @ExceptionHandler(CannotGetJdbcConnectionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleOverload(CannotGetJdbcConnectionException e) {
+        return e.getMessage();
+    }
+}
@@ -1,4 +1,66 @@
 package at.spengergasse.onlinecourseplatform.presentation;
 
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.InstructorRepository;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.CourseDtos;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.InstructorDtos;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read API of the instructor directory. Every endpoint selects only the columns of its DTO,
+ * instructor entities are never loaded. Latency is recorded as {@code http.server.requests}
+ * with SLO buckets, the target is a p99 below 50 ms per page.
+ */
+@RestController
+@RequestMapping("/api/instructors")
+@RequiredArgsConstructor
 public class InstructorRestController {
+
+    private final InstructorRepository instructorRepository;
+    private final CourseRepository courseRepository;
+
+    @GetMapping
+    public PagedModel<InstructorDtos.Summary> getInstructors(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return new PagedModel<>(instructorRepository.findSummariesBy(pageable));
+    }
+
+    /**
+     * Instructors whose first name, last name, email or department contains the term (case-insensitive),
+     * in id order
+     */
+    @GetMapping("/search")
+    public PagedModel<InstructorDtos.Summary> searchInstructors(@RequestParam("q") String term,
+                                                               @PageableDefault(size = 20) Pageable pageable) {
+        Page<Long> ids = instructorRepository.searchInstructorIds(term, pageable);
+        if (ids.isEmpty()) {
+            return new PagedModel<>(Page.empty(pageable));
+        }
+        return new PagedModel<>(new PageImpl<>(instructorRepository.findSummariesByIdInOrderById(ids.getContent()),
+                pageable, ids.getTotalElements()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<InstructorDtos.Dto> getInstructor(@PathVariable Long id) {
+        return ResponseEntity.of(instructorRepository.findDtoById(id));
+    }
+
+    @GetMapping("/{id}/courses")
+    public ResponseEntity<PagedModel<CourseDtos.Summary>> getCoursesOfInstructor(
+            @PathVariable Long id, @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        if (!instructorRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new PagedModel<>(courseRepository.findSummariesByInstructorId(id, pageable)));
+    }
 }
@@ -0,0 +1,31 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.service.export.JsonStreamFormat;
+import at.spengergasse.onlinecourseplatform.service.export.JsonStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Responses of the streaming listing endpoints; the Accept header picks NDJSON or a JSON array
+ */
+final class JsonStreamResponses {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private JsonStreamResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> of(String accept, ObjectMapper objectMapper,
+                                                    ToLongFunction<JsonStreamWriter> listing) {
+        JsonStreamFormat format = accept != null && accept.contains(NDJSON)
+                ? JsonStreamFormat.NDJSON : JsonStreamFormat.ARRAY;
+        StreamingResponseBody body = out -> listing.applyAsLong(new JsonStreamWriter(out, objectMapper, format));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.mediaType())
+                .body(body);
+    }
+}
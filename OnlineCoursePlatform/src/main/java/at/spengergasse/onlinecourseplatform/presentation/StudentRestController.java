@@ -0,0 +1,87 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.StudentDtos;
+import at.spengergasse.onlinecourseplatform.service.export.JsonExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Read API of the students. Like {@link InstructorRestController} it selects DTOs straight from the database
+ * instead of loading entities and mapping them.
+ */
+@RestController
+@RequestMapping("/api/students")
+@RequiredArgsConstructor
+public class StudentRestController {
+
+    // Range of SQL DATE, stands in for an open end of the registration date filter
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final StudentRepository studentRepository;
+    private final JsonExportService jsonExportService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * All students, or those registered between from and to (both inclusive)
+     */
+    @GetMapping
+    public PagedModel<StudentDtos.Summary> getStudents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredTo,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        if (registeredFrom == null && registeredTo == null) {
+            return new PagedModel<>(studentRepository.findSummariesBy(pageable));
+        }
+        return new PagedModel<>(studentRepository.findSummariesByRegistrationDateBetween(
+                registeredFrom == null ? EARLIEST : registeredFrom,
+                registeredTo == null ? LATEST : registeredTo, pageable));
+    }
+
+    /**
+     * Students whose first name, last name or email contains the term, in id order
+     */
+    @GetMapping("/search")
+    public PagedModel<StudentDtos.Summary> searchStudents(@RequestParam("q") String term,
+                                                         @PageableDefault(size = 20) Pageable pageable) {
+        Page<Long> ids = studentRepository.searchStudentIds(term, pageable);
+        if (ids.isEmpty()) {
+            return new PagedModel<>(Page.empty(pageable));
+        }
+        return new PagedModel<>(new PageImpl<>(studentRepository.findSummariesByIdInOrderById(ids.getContent()),
+                pageable, ids.getTotalElements()));
+    }
+
+    /**
+     * All students in id order, written while they are read; NDJSON if accepted, otherwise a JSON array
+     */
+    @GetMapping(value = "/stream", produces = {JsonStreamResponses.NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamStudents(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return JsonStreamResponses.of(accept, objectMapper, jsonExportService::streamStudents);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StudentDtos.Dto> getStudent(@PathVariable Long id) {
+        return ResponseEntity.of(studentRepository.findDtoById(id));
+    }
+}
@@ -0,0 +1,24 @@
+package at.spengergasse.onlinecourseplatform.presentation.api.dtos;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import jakarta.validation.constraints.NotNull;
+
+public class CourseDtos {
+
+    public record Summary(
+            Long id,
+            String name
+    ){
+        public Summary(@NotNull Course course){
+
+            this(course.getId(), course.getName());
+        }
+    }
+
+    public record Dto(Long id, String name, String description, Long instructorId){
+        public Dto(Course course){
+            this(course.getId(), course.getName(), course.getDescription(), course.getInstructorId());
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package at.spengergasse.onlinecourseplatform.presentation.api.dtos;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+public class EnrollmentDtos {
+
+    public record Dto(Long id, Long studentId, Long courseId, Double grade){
+        public Dto(Enrollment enrollment){
+            this(enrollment.getId(), enrollment.getStudentId(), enrollment.getCourseId(), enrollment.getGrade());
+        }
+    }
+
+    public record Enroll(@NotNull Long studentId, @NotNull Long courseId){
+    }
+
+    /**
+     * New grade of an enrollment; null removes the grade
+     */
+    public record Grade(@DecimalMin(value = "0.0", message = "Grade must be at least 0.0")
+                        @DecimalMax(value = "100.0", message = "Grade must not exceed 100.0") Double grade){
+    }
+
+    public enum BulkStatus {
+        ENROLLED,
+        ALREADY_ENROLLED,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        COURSE_FULL
+    }
+
+    /**
+     * Outcome of one pair of a bulk enrollment; the id is set for new and existing enrollments
+     */
+    public record BulkResult(Long studentId, Long courseId, Long enrollmentId, BulkStatus status){
+    }
+
+}
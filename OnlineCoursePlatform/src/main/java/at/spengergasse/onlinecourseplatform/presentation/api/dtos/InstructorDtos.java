@@ -6,18 +6,19 @@ import jakarta.validation.constraints.NotNull;
 public class InstructorDtos {
 
     public record Summary(
+            Long id,
             String firstName,
             String lastName
     ){
         public Summary(@NotNull Instructor inst){
 
-            this(inst.getFirstName(), inst.getLastName());
+            this(inst.getId(), inst.getFirstName(), inst.getLastName());
         }
     }
 
-    public record Dto(String firstName, String lastName, String email, String department){
+    public record Dto(Long id, String firstName, String lastName, String email, String department){
         public Dto(Instructor inst){
-            this(inst.getFirstName(), inst.getLastName(), inst.getEmail(), inst.getDepartment());
+            this(inst.getId(), inst.getFirstName(), inst.getLastName(), inst.getEmail(), inst.getDepartment());
         }
     }
 
@@ -7,18 +7,19 @@ import jakarta.validation.constraints.NotNull;
 public class StudentDtos {
 
     public record Summary(
+            Long id,
             String firstName,
             String lastName
     ){
         public Summary(@NotNull Student student){
 
-            this(student.getFirstName(), student.getLastName());
+            this(student.getId(), student.getFirstName(), student.getLastName());
         }
     }
 
-    public record Dto(String firstName, String lastName, String email){
+    public record Dto(Long id, String firstName, String lastName, String email){
         public Dto(Student student){
-            this(student.getFirstName(), student.getLastName(), student.getEmail());
+            this(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail());
         }
     }
 
@@ -0,0 +1,12 @@
+package at.spengergasse.onlinecourseplatform.service.enrollment;
+
+/**
+ * An enrollment that cannot be made in the current state: the student is already enrolled in the course,
+ * or the course is full
+ */
+public class EnrollmentConflictException extends RuntimeException {
+
+    public EnrollmentConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,365 @@
+package at.spengergasse.onlinecourseplatform.service.enrollment;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentBulkDeletes;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.IdBlockAllocator;
+import at.spengergasse.onlinecourseplatform.persistence.OptimisticRetry;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.WritePermits;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.BulkResult;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.BulkStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentService {
+
+    /**
+     * Upper bound for the pairs of one bulk enrollment
+     */
+    public static final int MAX_BULK_PAIRS = 10_000;
+
+    // Placeholders per IN list, rows per JDBC batch and rows per ranged DELETE;
+    // each batch becomes one multi-row INSERT on MySQL
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_LOCK_ATTEMPTS = 3;
+    private static final String UNIQUE_PAIR = "uk_enrollment_student_course";
+    private static final String INSERT_ENROLLMENT =
+            "INSERT INTO enrollments (id, student_id, course_id, grade, version) VALUES (?, ?, ?, NULL, 0)";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final WritePermits writePermits;
+    private final OptimisticRetry optimisticRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlockAllocator idAllocator;
+    private final SeatReservations seatReservations;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Enroll a student in a course.
+     * A concurrent enrollment of the same pair that passes the existence check fails on the
+     * unique constraint when the transaction commits. The transaction starts once a write permit is free.
+     *
+     * A course with a capacity gives a seat, see {@link SeatReservations}. A transaction chosen as a deadlock
+     * victim or timing out on a lock is rolled back as a whole and run again, at most
+     * {@value #MAX_LOCK_ATTEMPTS} times.
+     *
+     * @throws NoSuchElementException if the student or the course does not exist
+     * @throws EnrollmentConflictException if the student is already enrolled in the course or the course is full
+     * @throws org.springframework.dao.DuplicateKeyException if a concurrent request enrolled the same pair first
+     * @throws PessimisticLockingFailureException if the last attempt did not get its locks either
+     */
+    public EnrollmentDtos.Dto enroll(long studentId, long courseId) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    EnrollmentDtos.Dto enrollment = writePermits.call(() -> transactionTemplate.execute(
+                            status -> insert(studentId, courseId, false, status)));
+                    if (enrollment != null) {
+                        return enrollment;
+                    }
+                    // The probed stripes were full, their locks went with the rollback
+                    return writePermits.call(() -> transactionTemplate.execute(
+                            status -> insert(studentId, courseId, true, status)));
+                } catch (PessimisticLockingFailureException e) {
+                    if (attempt == MAX_LOCK_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.debug("Enrollment of student {} in course {} lost a lock, attempt {}",
+                            studentId, courseId, attempt, e);
+                }
+            }
+        } catch (DataIntegrityViolationException e) {
+            // JPA reports every constraint violation alike, only the pair's unique key means already enrolled
+            if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(UNIQUE_PAIR)) {
+                throw new DuplicateKeyException(
+                        "Student " + studentId + " was enrolled in course " + courseId + " concurrently", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return null after rolling back if the seat was only probed for and the probed stripes were full
+     */
+    private EnrollmentDtos.Dto insert(long studentId, long courseId, boolean lockAllStripes,
+                                      TransactionStatus status) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new NoSuchElementException("Student " + studentId + " not found");
+        }
+        // Read from the second-level cache, the capacity comes with the existence check
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new NoSuchElementException("Course " + courseId + " not found"));
+        if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+            throw new EnrollmentConflictException(
+                    "Student " + studentId + " is already enrolled in course " + courseId);
+        }
+        if (course.getCapacity() != null) {
+            if (lockAllStripes) {
+                seatReservations.reserve(courseId);
+            } else if (!seatReservations.tryReserve(courseId, course.getCapacity())) {
+                status.setRollbackOnly();
+                return null;
+            }
+        }
+        Enrollment enrollment = enrollmentRepository.save(
+                Enrollment.builder().studentId(studentId).courseId(courseId).build());
+        return new EnrollmentDtos.Dto(enrollment);
+    }
+
+    /**
+     * Set or remove the grade of an enrollment. Concurrent edits of the same enrollment are retried,
+     * see {@link OptimisticRetry}; the write permit is only held during an attempt, not while backing off.
+     *
+     * @throws NoSuchElementException                                   if the enrollment does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if every attempt lost to a concurrent edit
+     */
+    public EnrollmentDtos.Dto grade(long enrollmentId, Double grade) {
+        return optimisticRetry.call(() -> writePermits.call(() -> transactionTemplate.execute(status -> {
+            Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+                    .orElseThrow(() -> new NoSuchElementException("Enrollment " + enrollmentId + " not found"));
+            enrollment.setGrade(grade);
+            return new EnrollmentDtos.Dto(enrollment);
+        })));
+    }
+
+    /**
+     * Enroll many (student, course) pairs at once and report the outcome of every pair, in request order.
+     * Students, courses and existing enrollments are looked up with one IN query per {@value #CHUNK_SIZE}
+     * pairs, the new rows are inserted with JDBC batches under ids reserved in one block.
+     * Courses with a capacity admit pairs in request order until they are full.
+     * Pairs that were enrolled concurrently make the insert fail on the unique constraint;
+     * the whole request is then checked and inserted once more.
+     *
+     * @throws IllegalArgumentException if a pair lacks an id or there are more than {@value #MAX_BULK_PAIRS} pairs
+     */
+    public List<BulkResult> enrollAll(List<EnrollmentDtos.Enroll> pairs) {
+        if (pairs.size() > MAX_BULK_PAIRS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_PAIRS + " pairs per request");
+        }
+        for (EnrollmentDtos.Enroll pair : pairs) {
+            if (pair == null || pair.studentId() == null || pair.courseId() == null) {
+                throw new IllegalArgumentException("Every pair needs a studentId and a courseId");
+            }
+        }
+        long startTime = System.nanoTime();
+        List<BulkResult> results;
+        try {
+            results = writePermits.call(() -> transactionTemplate.execute(status -> insertAll(pairs)));
+        } catch (DuplicateKeyException e) {
+            log.debug("Pairs were enrolled concurrently, checking the bulk enrollment again", e);
+            results = writePermits.call(() -> transactionTemplate.execute(status -> insertAll(pairs)));
+        }
+        List<BulkResult> enrolled = results.stream().filter(result -> result.status() == BulkStatus.ENROLLED)
+                .toList();
+        if (!enrolled.isEmpty()) {
+            eventPublisher.publishEvent(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.INSERTED,
+                    enrolled.stream().map(BulkResult::courseId).collect(Collectors.toSet()),
+                    enrolled.stream().map(BulkResult::studentId).collect(Collectors.toSet())));
+        }
+        log.info("Bulk enrolled {} of {} pairs in {} ms", enrolled.size(), pairs.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+        return results;
+    }
+
+    /**
+     * Delete all enrollments of a course, see {@link #deleteInRanges}
+     *
+     * @return number of deleted enrollments
+     */
+    public long deleteByCourse(long courseId) {
+        return deleteInRanges(limit -> enrollmentRepository.findDtosByCourseIdOrderById(courseId, limit),
+                maxId -> enrollmentRepository.deleteByCourseIdUpTo(courseId, maxId));
+    }
+
+    /**
+     * Delete all enrollments of a student, see {@link #deleteInRanges}
+     *
+     * @return number of deleted enrollments
+     */
+    public long deleteByStudent(long studentId) {
+        return deleteInRanges(limit -> enrollmentRepository.findDtosByStudentIdOrderById(studentId, limit),
+                maxId -> enrollmentRepository.deleteByStudentIdUpTo(studentId, maxId));
+    }
+
+    /**
+     * Delete with one DELETE statement per {@value #CHUNK_SIZE} rows, lowest ids first. Every statement
+     * commits on its own, so row locks are held for one range only, never for the whole set.
+     * Every range publishes the courses and students of its enrollments, see {@link EnrollmentBulkDeletes}.
+     */
+    private long deleteInRanges(Function<Limit, List<EnrollmentDtos.Dto>> lowest, ToIntFunction<Long> deleteUpTo) {
+        long deleted = 0;
+        List<EnrollmentDtos.Dto> enrollments;
+        do {
+            enrollments = lowest.apply(Limit.of(CHUNK_SIZE));
+            if (!enrollments.isEmpty()) {
+                deleted += deleteUpTo.applyAsInt(enrollments.getLast().id());
+            }
+        } while (enrollments.size() == CHUNK_SIZE);
+        return deleted;
+    }
+
+    private List<BulkResult> insertAll(List<EnrollmentDtos.Enroll> pairs) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (EnrollmentDtos.Enroll pair : pairs) {
+            studentIds.add(pair.studentId());
+            courseIds.add(pair.courseId());
+        }
+        Set<Long> students = existingIds("students", studentIds);
+        Map<Long, Integer> capacities = courseCapacities(courseIds);
+
+        Set<EnrollmentDtos.Enroll> candidates = new LinkedHashSet<>();
+        for (EnrollmentDtos.Enroll pair : pairs) {
+            if (students.contains(pair.studentId()) && capacities.containsKey(pair.courseId())) {
+                candidates.add(pair);
+            }
+        }
+        Map<EnrollmentDtos.Enroll, Long> existing = existingEnrollments(candidates);
+        candidates.removeAll(existing.keySet());
+
+        // Seats are taken in ascending course id order, like in every other bulk enrollment
+        Map<Long, List<EnrollmentDtos.Enroll>> limited = new TreeMap<>();
+        for (EnrollmentDtos.Enroll pair : candidates) {
+            if (capacities.get(pair.courseId()) != null) {
+                limited.computeIfAbsent(pair.courseId(), courseId -> new ArrayList<>()).add(pair);
+            }
+        }
+        Set<EnrollmentDtos.Enroll> full = new HashSet<>();
+        limited.forEach((courseId, requested) -> full.addAll(
+                requested.subList(seatReservations.reserveUpTo(courseId, requested.size()), requested.size())));
+        candidates.removeAll(full);
+
+        Map<EnrollmentDtos.Enroll, Long> inserted = new HashMap<>();
+        if (!candidates.isEmpty()) {
+            long id = idAllocator.reserve("enrollments", candidates.size());
+            List<Object[]> batch = new ArrayList<>(Math.min(CHUNK_SIZE, candidates.size()));
+            for (EnrollmentDtos.Enroll pair : candidates) {
+                inserted.put(pair, id);
+                batch.add(new Object[]{id++, pair.studentId(), pair.courseId()});
+                if (batch.size() == CHUNK_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, batch);
+            }
+        }
+
+        List<BulkResult> results = new ArrayList<>(pairs.size());
+        for (EnrollmentDtos.Enroll pair : pairs) {
+            // A pair repeated within the request is inserted for its first occurrence only
+            Long insertedId = inserted.remove(pair);
+            BulkStatus status;
+            Long enrollmentId = null;
+            if (!students.contains(pair.studentId())) {
+                status = BulkStatus.STUDENT_NOT_FOUND;
+            } else if (!capacities.containsKey(pair.courseId())) {
+                status = BulkStatus.COURSE_NOT_FOUND;
+            } else if (insertedId != null) {
+                status = BulkStatus.ENROLLED;
+                enrollmentId = insertedId;
+                existing.put(pair, insertedId);
+            } else if (full.contains(pair)) {
+                status = BulkStatus.COURSE_FULL;
+            } else {
+                status = BulkStatus.ALREADY_ENROLLED;
+                enrollmentId = existing.get(pair);
+            }
+            results.add(new BulkResult(pair.studentId(), pair.courseId(), enrollmentId, status));
+        }
+        return results;
+    }
+
+    private Set<Long> existingIds(String table, Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : chunks(ids)) {
+            existing.addAll(jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id IN (" +
+                    placeholders(chunk.size(), "?") + ")", Long.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    /**
+     * Capacity of every existing course, null for courses without a capacity
+     */
+    private Map<Long, Integer> courseCapacities(Collection<Long> ids) {
+        Map<Long, Integer> capacities = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            jdbcTemplate.query("SELECT id, capacity FROM courses WHERE id IN (" +
+                    placeholders(chunk.size(), "?") + ")", rs -> {
+                capacities.put(rs.getLong(1), rs.getObject(2, Integer.class));
+            }, chunk.toArray());
+        }
+        return capacities;
+    }
+
+    private Map<EnrollmentDtos.Enroll, Long> existingEnrollments(Collection<EnrollmentDtos.Enroll> pairs) {
+        Map<EnrollmentDtos.Enroll, Long> existing = new HashMap<>();
+        for (List<EnrollmentDtos.Enroll> chunk : chunks(pairs)) {
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[2 * i] = chunk.get(i).studentId();
+                args[2 * i + 1] = chunk.get(i).courseId();
+            }
+            // Row value IN list, answered from the (student_id, course_id) unique index
+            jdbcTemplate.query("SELECT id, student_id, course_id FROM enrollments" +
+                    " WHERE (student_id, course_id) IN (" + placeholders(chunk.size(), "(?, ?)") + ")", rs -> {
+                existing.put(new EnrollmentDtos.Enroll(rs.getLong(2), rs.getLong(3)), rs.getLong(1));
+            }, args);
+        }
+        return existing;
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = List.copyOf(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count, String placeholder) {
+        return String.join(", ", Collections.nCopies(count, placeholder));
+    }
+}
@@ -0,0 +1,250 @@
+package at.spengergasse.onlinecourseplatform.service.enrollment;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seats of courses with a capacity. The capacity is split into up to {@value #STRIPES} stripes in
+ * {@code course_seats}; an enrollment takes a seat with one conditional UPDATE on a random stripe and tries
+ * the others only if that one is full. A registration spike on one course thus waits for several row locks
+ * instead of a single one, and courses never wait for each other. No stripe counts more seats taken than it
+ * has, so a course is never oversold. Seats are taken in the enrolling transaction and given back if it rolls
+ * back. Stripes are only ever locked in ascending order, no transaction holds a stripe while waiting for a
+ * lower one, so reservations and releases cannot deadlock each other. If the stripes from the random one
+ * upwards are full, the enrollment is rolled back and retried with all stripes locked.
+ * <p>
+ * The stripes follow a changed capacity once the change committed. Until they are reconciled, enrollments are
+ * admitted against the previous capacity, so lowering the capacity of a course while it fills up can admit up
+ * to the previous capacity.
+ * <p>
+ * Deleted enrollments give their seat back; after bulk deletes the stripes of the affected courses are
+ * reconciled with the enrollments table. Bulk enrollments take their seats themselves and grades do not
+ * occupy seats. Only loads of whole tables, e.g. CSV imports, reconcile all courses.
+ */
+@Component
+@Slf4j
+public class SeatReservations {
+
+    public static final int STRIPES = 8;
+
+    private static final String TAKE_SEAT =
+            "UPDATE course_seats SET taken = taken + 1 WHERE course_id = ? AND stripe = ? AND taken < seats";
+    private static final String TAKE_SEATS =
+            "UPDATE course_seats SET taken = taken + ? WHERE course_id = ? AND stripe = ?";
+    private static final String RELEASE_SEAT =
+            "UPDATE course_seats SET taken = taken - 1 WHERE course_id = ? AND stripe = ? AND taken > 0";
+    private static final String INSERT_STRIPE =
+            "INSERT INTO course_seats (course_id, stripe, seats, taken) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+
+    public SeatReservations(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Reconciliation runs after other transactions committed, never join them
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Try to take a seat of a course with a capacity inside the enrolling transaction, on a random stripe or one
+     * above it. The stripes are tried in ascending order without wrapping around, so two enrollments never wait
+     * for each other's stripes in a cycle.
+     *
+     * @return false if these stripes are full or the stripes do not match the capacity yet; the stripes stay
+     * locked (also after a failed conditional UPDATE), so the transaction has to be rolled back before
+     * {@link #reserve} is called
+     */
+    public boolean tryReserve(long courseId, int capacity) {
+        int stripes = stripes(capacity);
+        for (int stripe = ThreadLocalRandom.current().nextInt(stripes); stripe < stripes; stripe++) {
+            if (jdbcTemplate.update(TAKE_SEAT, courseId, stripe) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Take a seat of a course with a capacity inside the enrolling transaction, locking all stripes in
+     * ascending order like {@link #reserveUpTo}
+     *
+     * @throws EnrollmentConflictException if the course is full
+     */
+    public void reserve(long courseId) {
+        if (reserveUpTo(courseId, 1) == 0) {
+            throw new EnrollmentConflictException("Course " + courseId + " is full");
+        }
+    }
+
+    /**
+     * Take up to {@code count} seats of a course with a capacity inside the enrolling transaction.
+     * Locks all stripes of the course; callers reserving seats of several courses go in ascending course id
+     * order, so they cannot deadlock each other.
+     *
+     * @return number of seats taken
+     */
+    public int reserveUpTo(long courseId, int count) {
+        List<int[]> stripes = jdbcTemplate.query(
+                "SELECT stripe, seats, taken FROM course_seats WHERE course_id = ? ORDER BY stripe FOR UPDATE",
+                (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3)}, courseId);
+        if (stripes.isEmpty()) {
+            // Stripes are created when the capacity is committed; until then the locked course row
+            // serializes the enrollments and the enrollments are counted
+            Integer capacity = lockCapacity(courseId);
+            return capacity == null ? count : Math.clamp(capacity - lockEnrollments(courseId), 0, count);
+        }
+        int taken = 0;
+        for (int[] stripe : stripes) {
+            int seats = Math.min(count - taken, stripe[1] - stripe[2]);
+            if (seats > 0) {
+                jdbcTemplate.update(TAKE_SEATS, seats, courseId, stripe[0]);
+                taken += seats;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Recreate the stripes of a course from its capacity and its number of enrollments,
+     * or remove them if the course has no capacity (any more)
+     */
+    public void reconcile(long courseId) {
+        ownTransaction.executeWithoutResult(status -> {
+            // Stripes before the course row, in the same order as enrolling transactions
+            jdbcTemplate.query("SELECT stripe FROM course_seats WHERE course_id = ? ORDER BY stripe FOR UPDATE",
+                    rs -> {
+                    }, courseId);
+            Integer capacity = lockCapacity(courseId);
+            jdbcTemplate.update("DELETE FROM course_seats WHERE course_id = ?", courseId);
+            if (capacity == null) {
+                return;
+            }
+            long enrolled = lockEnrollments(courseId);
+            int stripes = stripes(capacity);
+            List<Object[]> rows = new ArrayList<>(stripes);
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                int seats = share(capacity, stripes, stripe);
+                // Spread evenly, no share of the enrollments exceeds the share of the capacity
+                int taken = enrolled >= capacity ? seats : share(enrolled, stripes, stripe);
+                rows.add(new Object[]{courseId, stripe, seats, taken});
+            }
+            jdbcTemplate.batchUpdate(INSERT_STRIPE, rows);
+        });
+    }
+
+    /**
+     * Reconcile the stripes of all courses with a capacity and remove the stripes of all others
+     */
+    public void reconcileAll() {
+        long startTime = System.currentTimeMillis();
+        ownTransaction.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM course_seats" +
+                " WHERE course_id NOT IN (SELECT id FROM courses WHERE capacity IS NOT NULL)"));
+        List<Long> courseIds = jdbcTemplate.queryForList("SELECT id FROM courses WHERE capacity IS NOT NULL",
+                Long.class);
+        courseIds.forEach(this::reconcile);
+        log.info("Reconciled the seats of {} courses in {} ms", courseIds.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        switch (event.entity()) {
+            case Course course -> {
+                boolean capacityChanged = switch (event.type()) {
+                    case INSERTED -> course.getCapacity() != null;
+                    case UPDATED -> event.previousState().isEmpty()
+                            || !Objects.equals(course.getCapacity(), event.previous("capacity"));
+                    case DELETED -> true;
+                };
+                if (capacityChanged) {
+                    reconcile(course.getId());
+                }
+            }
+            case Enrollment enrollment -> {
+                if (event.type() == EntityChangedEvent.ChangeType.DELETED) {
+                    release(enrollment.getCourseId());
+                } else if (event.type() == EntityChangedEvent.ChangeType.UPDATED
+                        && !Objects.equals(enrollment.getCourseId(), event.previous("courseId"))) {
+                    if (event.previous("courseId") instanceof Long previousCourseId) {
+                        reconcile(previousCourseId);
+                    }
+                    reconcile(enrollment.getCourseId());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @EventListener
+    public void onEnrollmentsChanged(EnrollmentsChangedEvent event) {
+        if (event.type() == EntityChangedEvent.ChangeType.DELETED) {
+            event.courseIds().forEach(this::reconcile);
+        }
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if ("enrollments".equals(event.table()) || "courses".equals(event.table())) {
+            reconcileAll();
+        }
+    }
+
+    private void release(long courseId) {
+        Boolean released = ownTransaction.execute(status -> {
+            List<Integer> stripes = jdbcTemplate.queryForList(
+                    "SELECT stripe FROM course_seats WHERE course_id = ? AND taken > 0 ORDER BY stripe",
+                    Integer.class, courseId);
+            for (int i = stripes.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(stripes.size());
+                 i < stripes.size(); i++) {
+                if (jdbcTemplate.update(RELEASE_SEAT, courseId, stripes.get(i)) == 1) {
+                    return true;
+                }
+            }
+            return stripes.isEmpty();
+        });
+        if (!Boolean.TRUE.equals(released)) {
+            // The stripes were emptied concurrently, count the seats again instead of locking lower stripes
+            reconcile(courseId);
+        }
+    }
+
+    private Integer lockCapacity(long courseId) {
+        return jdbcTemplate.query("SELECT capacity FROM courses WHERE id = ? FOR UPDATE",
+                rs -> rs.next() ? rs.getObject(1, Integer.class) : null, courseId);
+    }
+
+    /**
+     * Count the enrollments of a course with a locking read, which sees the enrollments committed while waiting
+     * for the course row. A plain read under REPEATABLE READ could count from an older snapshot and oversell.
+     * Rows instead of COUNT(*), not every database locks the rows of an aggregate.
+     */
+    private long lockEnrollments(long courseId) {
+        return jdbcTemplate.queryForList("SELECT id FROM enrollments WHERE course_id = ? FOR UPDATE", Long.class,
+                courseId).size();
+    }
+
+    private static int stripes(int capacity) {
+        return Math.clamp(capacity, 1, STRIPES);
+    }
+
+    private static int share(long total, int stripes, int stripe) {
+        return (int) (total / stripes + (stripe < total % stripes ? 1 : 0));
+    }
+}
@@ -0,0 +1,73 @@
+package at.spengergasse.onlinecourseplatform.service.export;
+
+import at.spengergasse.onlinecourseplatform.config.seeding.CsvFormat;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * CSV exports of whole tables in the format the admin import reads.
+ * Rows are streamed from a database cursor and detached as soon as they are written,
+ * so the heap needed does not grow with the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportEnrollments(Writer out) {
+        return export("enrollments", "id,student_id,course_id,grade", enrollmentRepository.streamAllByOrderById(),
+                e -> new Object[]{e.getId(), e.getStudentId(), e.getCourseId(), e.getGrade()}, out);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportEnrollmentsOfCourse(Long courseId, Writer out) {
+        return export("enrollments", "id,student_id,course_id,grade",
+                enrollmentRepository.streamByCourseIdOrderById(courseId),
+                e -> new Object[]{e.getId(), e.getStudentId(), e.getCourseId(), e.getGrade()}, out);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportStudents(Writer out) {
+        return export("students",
+                "id,first_name,last_name,email,date_of_birth,phone_number,address,registration_date",
+                studentRepository.streamAllByOrderById(),
+                s -> new Object[]{s.getId(), s.getFirstName(), s.getLastName(), s.getEmail(), s.getDateOfBirth(),
+                        s.getPhoneNumber(), s.getAddress(), s.getRegistrationDate()}, out);
+    }
+
+    private <T> long export(String table, String header, Stream<T> rows, Function<T, Object[]> values, Writer out) {
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+        try (rows) {
+            out.write(header);
+            out.write('\n');
+            for (T row : (Iterable<T>) rows::iterator) {
+                out.write(CsvFormat.row(values.apply(row)));
+                out.write('\n');
+                entityManager.detach(row);
+                count++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Exported {} {} in {} ms", count, table, System.currentTimeMillis() - startTime);
+        return count;
+    }
+}
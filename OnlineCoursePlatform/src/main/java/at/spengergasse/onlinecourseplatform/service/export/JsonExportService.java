@@ -0,0 +1,55 @@
+package at.spengergasse.onlinecourseplatform.service.export;
+
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Listings of whole tables as streamed JSON. DTOs are read from a database cursor and written as they arrive,
+ * so the first bytes leave immediately and the heap needed does not grow with the result.
+ * A failing write (e.g. the client went away) ends the transaction and closes the cursor; a failing read
+ * aborts the response without ending the listing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JsonExportService {
+
+    private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    @Transactional(readOnly = true)
+    public long streamStudents(JsonStreamWriter out) {
+        return stream("students", studentRepository.streamDtosByOrderById(), out);
+    }
+
+    /**
+     * Enrollments of a course, of a student, or all of them if both are {@code null}
+     */
+    @Transactional(readOnly = true)
+    public long streamEnrollments(Long courseId, Long studentId, JsonStreamWriter out) {
+        if (courseId != null && studentId != null) {
+            throw new IllegalArgumentException("Filter by course or by student, not both");
+        }
+        Stream<EnrollmentDtos.Dto> rows = courseId != null ? enrollmentRepository.streamDtosByCourseIdOrderById(courseId)
+                : studentId != null ? enrollmentRepository.streamDtosByStudentIdOrderById(studentId)
+                : enrollmentRepository.streamDtosByOrderById();
+        return stream("enrollments", rows, out);
+    }
+
+    private static long stream(String table, Stream<?> rows, JsonStreamWriter out) {
+        long startTime = System.currentTimeMillis();
+        try (rows) {
+            rows.forEach(out::write);
+        }
+        out.finish();
+        log.debug("Streamed {} {} in {} ms", out.count(), table, System.currentTimeMillis() - startTime);
+        return out.count();
+    }
+}
@@ -0,0 +1,27 @@
+package at.spengergasse.onlinecourseplatform.service.export;
+
+/**
+ * Layout of a streamed JSON listing
+ */
+public enum JsonStreamFormat {
+
+    /**
+     * One JSON document per line ({@code application/x-ndjson})
+     */
+    NDJSON("application/x-ndjson"),
+
+    /**
+     * A single JSON array, written element by element ({@code application/json})
+     */
+    ARRAY("application/json");
+
+    private final String mediaType;
+
+    JsonStreamFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,69 @@
+package at.spengergasse.onlinecourseplatform.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a listing to an output stream one element at a time, as NDJSON or as a JSON array.
+ * Nothing is buffered beyond the generator's buffer: a slow client blocks the writes, and with them
+ * the reads from the database cursor; a disconnected client makes the next write fail.
+ * Only {@link #finish()} ends the listing, a listing that failed half way is left cut off, so clients
+ * cannot take it for a complete one.
+ */
+public class JsonStreamWriter {
+
+    private final JsonGenerator generator;
+    private final JsonStreamFormat format;
+    private long count;
+
+    public JsonStreamWriter(OutputStream out, ObjectMapper objectMapper, JsonStreamFormat format) {
+        this.format = format;
+        try {
+            generator = objectMapper.getFactory().createGenerator(out);
+            if (format == JsonStreamFormat.ARRAY) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Object element) {
+        try {
+            generator.writeObject(element);
+            // The first element goes out right away, the rest whenever the buffers fill up
+            if (count++ == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Ends the listing after its last element; the underlying stream is left to its owner
+     */
+    public void finish() {
+        try {
+            if (format == JsonStreamFormat.ARRAY) {
+                generator.writeEndArray();
+            } else if (count > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package at.spengergasse.onlinecourseplatform.service.grades;
+
+import java.util.List;
+
+/**
+ * Outcome of one grade import. Only the first {@value GradeImportService#MAX_REPORTED_REJECTS}
+ * rejected records are listed, {@code rejected} counts all of them.
+ */
+public record GradeImportResult(long records, long updated, long rejected, long millis, long recordsPerSecond,
+                                List<Reject> rejects) {
+
+    /**
+     * A record that was not applied
+     *
+     * @param line   line number in the file, the header is line 1
+     * @param record the record as read
+     * @param reason why it was rejected
+     */
+    public record Reject(long line, String record, String reason) {
+    }
+}
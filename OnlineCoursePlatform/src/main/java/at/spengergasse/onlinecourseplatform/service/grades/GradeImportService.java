@@ -0,0 +1,201 @@
+package at.spengergasse.onlinecourseplatform.service.grades;
+
+import at.spengergasse.onlinecourseplatform.config.seeding.CsvFormat;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies end-of-semester grades from a CSV file with the columns student_id, course_id and grade, in any order.
+ * The file is read record by record, grades are checked against the constraints of {@link Enrollment#getGrade()}
+ * and valid records are written as versioned UPDATEs keyed by the (student_id, course_id) pair,
+ * {@value #BATCH_SIZE} per JDBC batch and transaction. Enrollments loaded before the import fail their next
+ * update with an optimistic locking error instead of overwriting the imported grade. The courses and students
+ * whose grades changed are published as grade-only changes, so only grade aggregates are reloaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeImportService {
+
+    public static final int BATCH_SIZE = 1000;
+    public static final int MAX_REPORTED_REJECTS = 1000;
+
+    private static final String UPDATE_GRADE = "UPDATE enrollments SET grade = ?, version = version + 1" +
+            " WHERE student_id = ? AND course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Import grades; a grade of {@value CsvFormat#NULL} or an empty grade removes the grade
+     *
+     * @throws IllegalArgumentException if the header does not name the three columns
+     */
+    public GradeImportResult importGrades(InputStream csv) throws IOException {
+        long startTime = System.nanoTime();
+        Run run = new Run();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            int[] columns = columns(reader.readLine());
+            String record;
+            long line = 1;
+            while ((record = reader.readLine()) != null) {
+                line++;
+                if (!record.isBlank()) {
+                    run.records++;
+                    run.add(line, record, columns);
+                }
+            }
+            run.flush();
+        } finally {
+            if (run.updated > 0) {
+                eventPublisher.publishEvent(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.UPDATED,
+                        run.courseIds, run.studentIds));
+            }
+        }
+        long elapsed = System.nanoTime() - startTime;
+        meterRegistry.counter("grades.import.records", "outcome", "updated").increment(run.updated);
+        meterRegistry.counter("grades.import.records", "outcome", "rejected").increment(run.rejected);
+        Timer.builder("grades.import.time").register(meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+        long millis = Math.max(1, elapsed / 1_000_000);
+        log.info("Imported {} grades, rejected {} of {} records in {} ms", run.updated, run.rejected, run.records,
+                millis);
+        return new GradeImportResult(run.records, run.updated, run.rejected, millis, run.records * 1000 / millis,
+                // Records that are not enrolled are only detected when their batch is flushed
+                run.rejects.stream().sorted(Comparator.comparingLong(GradeImportResult.Reject::line)).toList());
+    }
+
+    /**
+     * Positions of student_id, course_id and grade in a record
+     */
+    private static int[] columns(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Missing CSV header line");
+        }
+        List<String> names = Arrays.stream(header.split(",", -1))
+                .map(name -> name.strip().replace("\"", "").replace("_", "").toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = {names.indexOf("studentid"), names.indexOf("courseid"), names.indexOf("grade")};
+        if (names.size() != 3 || Arrays.stream(columns).anyMatch(column -> column < 0)) {
+            throw new IllegalArgumentException("Expected the columns student_id, course_id and grade: " + header);
+        }
+        return columns;
+    }
+
+    private static String unquote(String value) {
+        String stripped = value.strip();
+        if (stripped.length() >= 2 && stripped.startsWith("\"") && stripped.endsWith("\"")) {
+            return stripped.substring(1, stripped.length() - 1).strip();
+        }
+        return stripped;
+    }
+
+    /**
+     * State of one import: the pending batch and the running totals
+     */
+    private final class Run {
+
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+        private final List<String> batchRecords = new ArrayList<>(BATCH_SIZE);
+        private final List<GradeImportResult.Reject> rejects = new ArrayList<>();
+        private final Set<Long> courseIds = new HashSet<>();
+        private final Set<Long> studentIds = new HashSet<>();
+        private long records;
+        private long updated;
+        private long rejected;
+
+        void add(long line, String record, int[] columns) {
+            String[] values = record.split(",", -1);
+            if (values.length != 3) {
+                reject(line, record, "Expected 3 values but found " + values.length);
+                return;
+            }
+            long studentId;
+            long courseId;
+            Double grade;
+            try {
+                studentId = Long.parseLong(unquote(values[columns[0]]));
+                courseId = Long.parseLong(unquote(values[columns[1]]));
+                String gradeValue = unquote(values[columns[2]]);
+                grade = gradeValue.isEmpty() || CsvFormat.NULL.equals(gradeValue) ? null : Double.valueOf(gradeValue);
+            } catch (NumberFormatException e) {
+                reject(line, record, "Not a number: " + e.getMessage());
+                return;
+            }
+            if (grade != null && (grade.isNaN() || grade.isInfinite())) {
+                reject(line, record, "Grade must be a finite number");
+                return;
+            }
+            Set<ConstraintViolation<Enrollment>> violations = validator.validateValue(Enrollment.class, "grade", grade);
+            if (!violations.isEmpty()) {
+                reject(line, record, violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            batch.add(new Object[]{grade, studentId, courseId});
+            batchLines.add(line);
+            batchRecords.add(record);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_GRADE, batch));
+            for (int i = 0; i < counts.length; i++) {
+                // Drivers that rewrite batches may only report success, not the row count
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                    studentIds.add((Long) batch.get(i)[1]);
+                    courseIds.add((Long) batch.get(i)[2]);
+                } else {
+                    reject(batchLines.get(i), batchRecords.get(i), "Student " + batch.get(i)[1] +
+                            " is not enrolled in course " + batch.get(i)[2]);
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+            batchRecords.clear();
+        }
+
+        private void reject(long line, String record, String reason) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(new GradeImportResult.Reject(line, record, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package at.spengergasse.onlinecourseplatform.service.search;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.search.TextAnalyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over course names and descriptions.
+ * Every query term matches as a prefix; documents have to match all query terms.
+ * Hits are ranked by TF-IDF, where name terms count {@value #NAME_WEIGHT} times,
+ * exact term matches count more than prefix matches and short documents rank before long ones.
+ * The index is built on startup and follows course writes through {@link EntityChangedEvent}s.
+ * JDBC writes to the whole table rebuild it on the task executor, off the writing thread; course writes
+ * received while a rebuild scans the table go to the current index and are replayed on the rebuilt one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    private static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::score).reversed()
+            .thenComparingLong(SearchHit::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor taskExecutor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // One rebuild at a time; a rebuild requested while one is pending is covered by it
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    // Course writes received during the scan of a rebuild, null while no rebuild scans
+    private List<Change> pending;
+    // term -> course id -> weighted term frequency
+    private NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // course id -> weighted term frequencies, needed to take a course out of the postings again
+    private Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    /**
+     * Load all courses
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            setPending(new ArrayList<>());
+            NavigableMap<String, Map<Long, Integer>> newPostings = new TreeMap<>();
+            Map<Long, Map<String, Integer>> newDocuments = new HashMap<>();
+            try {
+                jdbcTemplate.query("SELECT id, name, description FROM courses", rs -> {
+                    add(newPostings, newDocuments, rs.getLong("id"), rs.getString("name"),
+                            rs.getString("description"));
+                });
+            } catch (RuntimeException e) {
+                setPending(null);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                // Writes committed before the scan read them are replayed as well, replaying is idempotent
+                for (Change change : pending) {
+                    remove(newPostings, newDocuments, change.id());
+                    if (!change.removed()) {
+                        add(newPostings, newDocuments, change.id(), change.name(), change.description());
+                    }
+                }
+                pending = null;
+                postings = newPostings;
+                documents = newDocuments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Indexed {} courses ({} terms) in {} ms", newDocuments.size(), newPostings.size(),
+                    System.currentTimeMillis() - startTime);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if ("courses".equals(event.table()) && rebuildPending.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @EventListener
+    public void onCourseChanged(EntityChangedEvent event) {
+        if (!event.concerns(Course.class)) {
+            return;
+        }
+        Course course = (Course) event.entity();
+        if (event.type() == EntityChangedEvent.ChangeType.DELETED) {
+            remove(course.getId());
+        } else {
+            put(course.getId(), course.getName(), course.getDescription());
+        }
+    }
+
+    /**
+     * Add a course or replace its indexed text
+     */
+    public void put(long id, String name, String description) {
+        lock.writeLock().lock();
+        try {
+            remove(postings, documents, id);
+            add(postings, documents, id, name, description);
+            if (pending != null) {
+                pending.add(new Change(id, name, description, false));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            remove(postings, documents, id);
+            if (pending != null) {
+                pending.add(new Change(id, null, null, true));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the courses matching all terms of the query, best match first
+     */
+    public Page<SearchHit> search(String query, Pageable pageable) {
+        List<String> terms = TextAnalyzer.tokens(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = score(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+            }
+            return page(scores, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best score of every course containing a term starting with the query term
+     */
+    private Map<Long, Double> score(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+        double documentCount = documents.size();
+        for (Map.Entry<String, Map<Long, Integer>> entry :
+                postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            Map<Long, Integer> frequencies = entry.getValue();
+            double idf = Math.log(1 + documentCount / frequencies.size());
+            double weight = entry.getKey().equals(queryTerm) ? 1.0 : PREFIX_MATCH_WEIGHT;
+            frequencies.forEach((id, frequency) -> {
+                double score = weight * (1 + Math.log(frequency)) * idf / Math.sqrt(documents.get(id).size());
+                scores.merge(id, score, Math::max);
+            });
+        }
+        return scores;
+    }
+
+    private static Page<SearchHit> page(Map<Long, Double> scores, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<SearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new SearchHit(id, score)));
+            hits.sort(RANKING);
+            return new PageImpl<>(hits, pageable, hits.size());
+        }
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (pageable.getOffset() >= scores.size()) {
+            return new PageImpl<>(List.of(), pageable, scores.size());
+        }
+        // Keep only the best hits up to the end of the requested page
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(RANKING.reversed());
+        scores.forEach((id, score) -> {
+            best.add(new SearchHit(id, score));
+            if (best.size() > end) {
+                best.poll();
+            }
+        });
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return new PageImpl<>(hits.subList((int) pageable.getOffset(), hits.size()), pageable, scores.size());
+    }
+
+    private static void add(NavigableMap<String, Map<Long, Integer>> postings,
+                            Map<Long, Map<String, Integer>> documents, long id, String name, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.tokens(name)) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.tokens(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+        documents.put(id, frequencies);
+    }
+
+    private static void remove(NavigableMap<String, Map<Long, Integer>> postings,
+                               Map<Long, Map<String, Integer>> documents, long id) {
+        Map<String, Integer> frequencies = documents.remove(id);
+        if (frequencies == null) {
+            return;
+        }
+        for (String term : frequencies.keySet()) {
+            Map<Long, Integer> courses = postings.get(term);
+            courses.remove(id);
+            if (courses.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void setPending(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            pending = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Change(long id, String name, String description, boolean removed) {
+    }
+}
@@ -0,0 +1,41 @@
+package at.spengergasse.onlinecourseplatform.service.search;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog search answered by the {@link CourseSearchIndex} instead of a LIKE scan over the courses table
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseSearchService {
+
+    private final CourseSearchIndex index;
+    private final CourseRepository courseRepository;
+
+    /**
+     * Courses matching all words of the query, most relevant first; words also match as prefixes
+     */
+    @Transactional(readOnly = true)
+    public Page<Course> search(String query, Pageable pageable) {
+        Page<SearchHit> hits = index.search(query, pageable);
+        List<Long> ids = hits.map(SearchHit::id).getContent();
+        Map<Long, Course> courses = courseRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        // Courses deleted since the index was updated are skipped
+        List<Course> ranked = ids.stream().map(courses::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(ranked, pageable, hits.getTotalElements());
+    }
+}
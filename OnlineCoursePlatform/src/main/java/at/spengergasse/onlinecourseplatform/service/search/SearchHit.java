@@ -0,0 +1,7 @@
+package at.spengergasse.onlinecourseplatform.service.search;
+
+/**
+ * An indexed entity matching a search, with its relevance score
+ */
+public record SearchHit(long id, double score) {
+}
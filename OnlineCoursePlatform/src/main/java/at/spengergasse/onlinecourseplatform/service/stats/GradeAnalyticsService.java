@@ -0,0 +1,289 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.persistence.Streaming;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grade histograms, percentiles and top students per course and per department.
+ * All of it is computed in one streaming pass over the graded enrollments without loading entities,
+ * and cached. Changed enrollments, courses and instructors only mark the courses they concern; their next read
+ * recomputes just those courses and merges the departments they belong to from the cached course histograms.
+ * Only changes of whole tables compute everything again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeAnalyticsService {
+
+    /**
+     * Most students kept per course for {@link #topStudents(long, int)}
+     */
+    public static final int MAX_TOP_STUDENTS = 100;
+
+    private static final String SELECT_GRADES = "SELECT e.course_id, e.student_id, e.grade, i.department " +
+            "FROM enrollments e LEFT JOIN courses c ON c.id = e.course_id " +
+            "LEFT JOIN instructors i ON i.id = c.instructor_id WHERE e.grade IS NOT NULL";
+
+    private static final Set<String> TABLES = Set.of("enrollments", "courses", "instructors");
+
+    // Best first; on equal grades the lower student id ranks first
+    private static final Comparator<RankedGrade> RANKING = Comparator.comparingDouble(RankedGrade::grade).reversed()
+            .thenComparingLong(RankedGrade::studentId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Replaced as a whole: an invalidation and the store of a snapshot computed before it cannot interleave
+    private final AtomicReference<Cached> cached = new AtomicReference<>(new Cached(0, null));
+    // Courses changed since the snapshot computed them
+    private final Set<Long> staleCourses = ConcurrentHashMap.newKeySet();
+    // Lets one reader compute the snapshot, the others wait on the lock rather than on a monitor
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public GradeDistribution ofCourse(long courseId) {
+        CourseGrades course = snapshot().courses.get(courseId);
+        return course == null ? GradeDistribution.EMPTY : course.distribution();
+    }
+
+    /**
+     * Distribution over all courses of the department's instructors; the name is matched ignoring case
+     */
+    public GradeDistribution ofDepartment(String department) {
+        return snapshot().departments.getOrDefault(department, GradeDistribution.EMPTY);
+    }
+
+    /**
+     * Distribution per department, ordered by department name
+     */
+    public Map<String, GradeDistribution> byDepartment() {
+        return snapshot().departments;
+    }
+
+    /**
+     * Best graded students of a course, at most {@value #MAX_TOP_STUDENTS}
+     */
+    public List<RankedGrade> topStudents(long courseId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        CourseGrades course = snapshot().courses.get(courseId);
+        List<RankedGrade> top = course == null ? List.of() : course.topStudents();
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        switch (event.entity()) {
+            case Enrollment enrollment -> {
+                staleCourses.add(enrollment.getCourseId());
+                if (event.type() == EntityChangedEvent.ChangeType.UPDATED) {
+                    if (event.previousState().isEmpty()) {
+                        // The course the enrollment was moved away from is unknown
+                        invalidate();
+                    } else if (event.previous("courseId") instanceof Long previousCourseId) {
+                        staleCourses.add(previousCourseId);
+                    }
+                }
+            }
+            case Course course -> {
+                // The instructor decides the department the course's grades count for
+                boolean departmentChanged = switch (event.type()) {
+                    case INSERTED -> false;
+                    case UPDATED -> event.previousState().isEmpty()
+                            || !Objects.equals(course.getInstructorId(), event.previous("instructorId"));
+                    case DELETED -> true;
+                };
+                if (departmentChanged) {
+                    staleCourses.add(course.getId());
+                }
+            }
+            case Instructor instructor -> {
+                boolean departmentChanged = switch (event.type()) {
+                    case INSERTED -> false;
+                    case UPDATED -> event.previousState().isEmpty()
+                            || !Objects.equals(instructor.getDepartment(), event.previous("department"));
+                    case DELETED -> true;
+                };
+                if (departmentChanged) {
+                    staleCourses.addAll(jdbcTemplate.queryForList("SELECT id FROM courses WHERE instructor_id = ?",
+                            Long.class, instructor.getId()));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @EventListener
+    public void onEnrollmentsChanged(EnrollmentsChangedEvent event) {
+        staleCourses.addAll(event.courseIds());
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if (TABLES.contains(event.table())) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        cached.updateAndGet(current -> new Cached(current.generation() + 1, null));
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = cached.get().snapshot();
+        if (current != null && staleCourses.isEmpty()) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            Cached computedFrom = cached.get();
+            current = computedFrom.snapshot();
+            if (current == null) {
+                // Courses changed from here on are refreshed again by the next read
+                staleCourses.clear();
+                current = compute();
+            } else if (!staleCourses.isEmpty()) {
+                List<Long> courseIds = List.copyOf(staleCourses);
+                staleCourses.removeAll(courseIds);
+                current = refresh(current, courseIds);
+            } else {
+                return current;
+            }
+            // A change of whole tables during the scan leaves the result uncached, the next read computes it again
+            cached.compareAndSet(computedFrom, new Cached(computedFrom.generation(), current));
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot compute() {
+        long startTime = System.currentTimeMillis();
+        Map<Long, CourseGrades> courses = scan(SELECT_GRADES);
+        SortedMap<String, GradeDistribution> departments = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, GradeHistogram> histograms = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        courses.values().stream().filter(course -> course.department() != null).forEach(course ->
+                histograms.computeIfAbsent(course.department(), d -> new GradeHistogram()).addAll(course.histogram()));
+        histograms.forEach((name, histogram) -> departments.put(name, GradeDistribution.of(histogram)));
+        log.debug("Computed grade distributions of {} courses in {} ms", courses.size(),
+                System.currentTimeMillis() - startTime);
+        return new Snapshot(courses, Collections.unmodifiableSortedMap(departments));
+    }
+
+    /**
+     * Recompute the given courses and the departments they belonged to before or belong to now
+     */
+    private Snapshot refresh(Snapshot current, Collection<Long> courseIds) {
+        Map<Long, CourseGrades> courses = new HashMap<>(current.courses);
+        Set<String> changedDepartments = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Long courseId : courseIds) {
+            CourseGrades previous = courses.remove(courseId);
+            if (previous != null && previous.department() != null) {
+                changedDepartments.add(previous.department());
+            }
+            CourseGrades recomputed = scan(SELECT_GRADES + " AND e.course_id = ?", courseId).get(courseId);
+            if (recomputed != null) {
+                courses.put(courseId, recomputed);
+                if (recomputed.department() != null) {
+                    changedDepartments.add(recomputed.department());
+                }
+            }
+        }
+        SortedMap<String, GradeDistribution> departments = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        departments.putAll(current.departments);
+        for (String department : changedDepartments) {
+            GradeHistogram histogram = new GradeHistogram();
+            courses.values().stream().filter(course -> department.equalsIgnoreCase(course.department()))
+                    .forEach(course -> histogram.addAll(course.histogram()));
+            departments.remove(department);
+            if (histogram.count() > 0 || histogram.outOfRange() > 0) {
+                departments.put(department, GradeDistribution.of(histogram));
+            }
+        }
+        log.debug("Recomputed grade distributions of {} courses", courseIds.size());
+        return new Snapshot(courses, Collections.unmodifiableSortedMap(departments));
+    }
+
+    /**
+     * Grades per course, streamed without loading entities
+     */
+    private Map<Long, CourseGrades> scan(String sql, Object... args) {
+        Map<Long, GradeHistogram> histograms = new HashMap<>();
+        Map<Long, String> departments = new HashMap<>();
+        Map<Long, PriorityQueue<RankedGrade>> top = new HashMap<>();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.parseInt(Streaming.FETCH_SIZE));
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, rs -> {
+            long courseId = rs.getLong(1);
+            RankedGrade grade = new RankedGrade(rs.getLong(2), rs.getDouble(3));
+
+            histograms.computeIfAbsent(courseId, id -> new GradeHistogram()).add(grade.grade());
+            departments.putIfAbsent(courseId, rs.getString(4));
+            // Bounded heap with the worst kept grade on top
+            PriorityQueue<RankedGrade> best = top.computeIfAbsent(courseId,
+                    id -> new PriorityQueue<>(RANKING.reversed()));
+            if (GradeHistogram.inRange(grade.grade())) {
+                best.add(grade);
+            }
+            if (best.size() > MAX_TOP_STUDENTS) {
+                best.poll();
+            }
+        });
+
+        Map<Long, CourseGrades> courses = new HashMap<>();
+        histograms.forEach((id, histogram) -> courses.put(id, new CourseGrades(departments.get(id), histogram,
+                GradeDistribution.of(histogram), top.get(id).stream().sorted(RANKING).toList())));
+        return courses;
+    }
+
+    /**
+     * Snapshot computed for a generation of whole-table changes, null until computed
+     */
+    private record Cached(long generation, Snapshot snapshot) {
+    }
+
+    private record Snapshot(Map<Long, CourseGrades> courses, Map<String, GradeDistribution> departments) {
+    }
+
+    /**
+     * Grades of one course; the histogram is kept to merge departments and never changed after the scan
+     */
+    private record CourseGrades(String department, GradeHistogram histogram, GradeDistribution distribution,
+                                List<RankedGrade> topStudents) {
+    }
+}
@@ -0,0 +1,18 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import java.util.List;
+
+/**
+ * Distribution of the grades of a course or department; median and p90 are {@code null} without grades.
+ * Grades outside of 0 - 100 are only counted in {@code outOfRange}.
+ */
+public record GradeDistribution(long count, long outOfRange, Double median, Double p90,
+                                List<GradeHistogram.Bucket> histogram) {
+
+    public static final GradeDistribution EMPTY = new GradeDistribution(0, 0, null, null, List.of());
+
+    static GradeDistribution of(GradeHistogram histogram) {
+        return new GradeDistribution(histogram.count(), histogram.outOfRange(), histogram.percentile(0.5),
+                histogram.percentile(0.9), histogram.buckets());
+    }
+}
@@ -0,0 +1,103 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grade counts in fixed buckets of {@value #BUCKET_WIDTH} points over the valid range 0 - 100.
+ * Grades are validated to that range, so a few hundred counters describe any number of enrollments
+ * and percentiles are exact to the bucket width. Grades outside of it, written bypassing the validation,
+ * are left out of the buckets and only counted.
+ */
+public final class GradeHistogram {
+
+    public static final double BUCKET_WIDTH = 0.5;
+    private static final double MAX_GRADE = 100.0;
+    // The last bucket only holds the maximum grade
+    private static final int BUCKETS = (int) (MAX_GRADE / BUCKET_WIDTH) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long outOfRange;
+
+    public void add(double grade) {
+        if (!inRange(grade)) {
+            outOfRange++;
+            return;
+        }
+        counts[(int) (grade / BUCKET_WIDTH)]++;
+        count++;
+    }
+
+    /**
+     * Add all grades counted by another histogram
+     */
+    public void addAll(GradeHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        outOfRange += other.outOfRange;
+    }
+
+    /**
+     * Number of grades in the buckets
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Number of grades left out for being outside of 0 - 100
+     */
+    public long outOfRange() {
+        return outOfRange;
+    }
+
+    /**
+     * Lower bound of the bucket holding the grade at the given rank, {@code null} without grades
+     *
+     * @param percentile between 0 and 1
+     */
+    public Double percentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+        }
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i * BUCKET_WIDTH;
+            }
+        }
+        return MAX_GRADE;
+    }
+
+    /**
+     * Non-empty buckets in ascending order
+     */
+    public List<Bucket> buckets() {
+        List<Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                double from = i * BUCKET_WIDTH;
+                buckets.add(new Bucket(from, Math.min(from + BUCKET_WIDTH, MAX_GRADE), counts[i]));
+            }
+        }
+        return buckets;
+    }
+
+    static boolean inRange(double grade) {
+        return grade >= 0 && grade <= MAX_GRADE;
+    }
+
+    /**
+     * Grades from (inclusive) up to (exclusive, except for the last bucket)
+     */
+    public record Bucket(double from, double to, long count) {
+    }
+}
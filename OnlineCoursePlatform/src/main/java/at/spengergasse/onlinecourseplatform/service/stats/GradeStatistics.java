@@ -0,0 +1,340 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityFlushedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grade count, sum, sum of squares, min and max per course and per student, kept in memory.
+ * Committed enrollment writes update the affected aggregates in place, so averages and variances
+ * are lookups instead of AVG queries. Removing the current min or max of an aggregate marks it stale,
+ * it is then reloaded from the database on its next read, as are the aggregates of courses and students whose
+ * enrollments were written in bulk. {@link #rebuild()} recomputes everything and repairs drift, e.g. after
+ * writes that bypassed JPA; after JDBC writes to the whole table it runs on the task executor, off the writing
+ * thread.
+ * <p>
+ * Writes are applied only after they committed, so a reload or a rebuild may read a write that is not applied
+ * yet. Enrollment writes through JPA are therefore tracked from their flush until they were applied: an aggregate
+ * reloaded while such a write is pending, or changed while the reload ran, stays stale and is reloaded again
+ * on a later read. Aggregates written while a rebuild scans the table, or pending when the rebuilt ones are
+ * swapped in, are reloaded the same way. No write is lost or counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeStatistics {
+
+    private static final String AGGREGATES = "COUNT(grade) AS grades, COALESCE(SUM(grade), 0) AS grade_sum, " +
+            "COALESCE(SUM(grade * grade), 0) AS grade_square_sum, MIN(grade) AS min_grade, MAX(grade) AS max_grade";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor taskExecutor;
+
+    private final Aggregates courses = new Aggregates("course_id");
+    private final Aggregates students = new Aggregates("student_id");
+    // One rebuild at a time; a rebuild requested while one is pending is covered by it
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    public GradeStats ofCourse(long courseId) {
+        return courses.get(courseId);
+    }
+
+    public GradeStats ofStudent(long studentId) {
+        return students.get(studentId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            courses.rebuild();
+            students.rebuild();
+            log.info("Rebuilt grade statistics of {} courses and {} students in {} ms", courses.stats.size(),
+                    students.stats.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if ("enrollments".equals(event.table()) && rebuildPending.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @EventListener
+    public void onEnrollmentsChanged(EnrollmentsChangedEvent event) {
+        event.courseIds().forEach(courses::markStale);
+        event.studentIds().forEach(students::markStale);
+    }
+
+    @EventListener
+    public void onEnrollmentFlushed(EntityFlushedEvent event) {
+        if (!event.concerns(Enrollment.class) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Enrollment enrollment = (Enrollment) event.entity();
+        Long courseId = enrollment.getCourseId();
+        Long studentId = enrollment.getStudentId();
+        Long previousCourseId = (Long) event.previous("courseId");
+        Long previousStudentId = (Long) event.previous("studentId");
+        courses.beginWrite(courseId, previousCourseId);
+        students.beginWrite(studentId, previousStudentId);
+        // Runs after Hibernate's post-commit events, i.e. after the write was applied, or after a rollback
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                courses.endWrite(courseId, previousCourseId);
+                students.endWrite(studentId, previousStudentId);
+            }
+        });
+    }
+
+    @EventListener
+    public void onEnrollmentChanged(EntityChangedEvent event) {
+        if (!event.concerns(Enrollment.class)) {
+            return;
+        }
+        Enrollment enrollment = (Enrollment) event.entity();
+        switch (event.type()) {
+            case INSERTED -> add(enrollment.getCourseId(), enrollment.getStudentId(), enrollment.getGrade());
+            case DELETED -> remove(previous(event, "courseId", enrollment.getCourseId()),
+                    previous(event, "studentId", enrollment.getStudentId()),
+                    previous(event, "grade", enrollment.getGrade()));
+            case UPDATED -> {
+                if (event.previousState().isEmpty()) {
+                    // Old values unknown, reload the aggregates the enrollment belongs to now
+                    courses.markStale(enrollment.getCourseId());
+                    students.markStale(enrollment.getStudentId());
+                } else {
+                    remove((Long) event.previous("courseId"), (Long) event.previous("studentId"),
+                            (Double) event.previous("grade"));
+                    add(enrollment.getCourseId(), enrollment.getStudentId(), enrollment.getGrade());
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T previous(EntityChangedEvent event, String property, T current) {
+        return event.previousState().containsKey(property) ? (T) event.previous(property) : current;
+    }
+
+    private void add(Long courseId, Long studentId, Double grade) {
+        if (grade != null) {
+            courses.add(courseId, grade);
+            students.add(studentId, grade);
+        }
+    }
+
+    private void remove(Long courseId, Long studentId, Double grade) {
+        if (grade != null) {
+            courses.remove(courseId, grade);
+            students.remove(studentId, grade);
+        }
+    }
+
+    private static GradeStats read(ResultSet rs) throws SQLException {
+        long count = rs.getLong("grades");
+        if (count == 0) {
+            return GradeStats.EMPTY;
+        }
+        return new GradeStats(count, rs.getDouble("grade_sum"), rs.getDouble("grade_square_sum"),
+                rs.getDouble("min_grade"), rs.getDouble("max_grade"));
+    }
+
+    /**
+     * Aggregates grouped by one enrollment column
+     */
+    private final class Aggregates {
+
+        private final String column;
+        private volatile ConcurrentMap<Long, GradeStats> stats = new ConcurrentHashMap<>();
+        private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+        // Changes take the read lock, only swapping in rebuilt aggregates takes the write lock
+        private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+        // Keys changed since the running rebuild started scanning, null if none is running
+        private Set<Long> changedDuringRebuild;
+        // Per key the sequence number of its last change and its flushed writes not yet applied
+        private final ConcurrentMap<Long, Writes> writes = new ConcurrentHashMap<>();
+        private final AtomicLong changeSequence = new AtomicLong();
+
+        private Aggregates(String column) {
+            this.column = column;
+        }
+
+        GradeStats get(long key) {
+            if (stale.remove(key) && !reload(key)) {
+                stale.add(key);
+            }
+            return stats.getOrDefault(key, GradeStats.EMPTY);
+        }
+
+        void add(long key, double grade) {
+            swapLock.readLock().lock();
+            try {
+                stats.compute(key, (k, current) -> (current == null ? GradeStats.EMPTY : current).add(grade));
+                changed(key);
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+
+        void remove(long key, double grade) {
+            swapLock.readLock().lock();
+            try {
+                stats.computeIfPresent(key, (k, current) -> {
+                    GradeStats removed = current.remove(grade);
+                    if (removed.count() == 0) {
+                        return null;
+                    }
+                    if (current.isExtreme(grade)) {
+                        stale.add(k);
+                    }
+                    return removed;
+                });
+                changed(key);
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+
+        void markStale(long key) {
+            swapLock.readLock().lock();
+            try {
+                stale.add(key);
+                changed(key);
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+
+        void beginWrite(Long key, Long previousKey) {
+            writing(key, 1);
+            if (previousKey != null && !previousKey.equals(key)) {
+                writing(previousKey, 1);
+            }
+        }
+
+        void endWrite(Long key, Long previousKey) {
+            writing(key, -1);
+            if (previousKey != null && !previousKey.equals(key)) {
+                writing(previousKey, -1);
+            }
+        }
+
+        private void writing(Long key, int delta) {
+            if (key != null) {
+                writes.compute(key, (k, current) -> new Writes(changeSequence.incrementAndGet(),
+                        (current == null ? 0 : current.pending()) + delta));
+            }
+        }
+
+        private void changed(long key) {
+            writes.compute(key, (k, current) -> new Writes(changeSequence.incrementAndGet(),
+                    current == null ? 0 : current.pending()));
+            Set<Long> changed = changedDuringRebuild;
+            if (changed != null) {
+                changed.add(key);
+            }
+        }
+
+        /**
+         * Reload an aggregate from the database
+         *
+         * @return whether the reloaded aggregate was stored; not if a write of the key was pending or applied
+         * meanwhile, the read may then count a write the aggregate counts as well
+         */
+        boolean reload(long key) {
+            long readAfter = changeSequence.get();
+            GradeStats reloaded = jdbcTemplate.queryForObject("SELECT " + AGGREGATES +
+                    " FROM enrollments WHERE " + column + " = ?", (rs, rowNum) -> read(rs), key);
+            boolean[] stored = new boolean[1];
+            swapLock.readLock().lock();
+            try {
+                // Atomic with the tracking of the key's writes, a write beginning later is applied on top
+                writes.compute(key, (k, current) -> {
+                    if (current == null || (current.pending() == 0 && current.lastChange() <= readAfter)) {
+                        if (reloaded == null || reloaded.count() == 0) {
+                            stats.remove(key);
+                        } else {
+                            stats.put(key, reloaded);
+                        }
+                        stored[0] = true;
+                    }
+                    return current;
+                });
+            } finally {
+                swapLock.readLock().unlock();
+            }
+            return stored[0];
+        }
+
+        void rebuild() {
+            Set<Long> changed = ConcurrentHashMap.newKeySet();
+            swapLock.writeLock().lock();
+            try {
+                changedDuringRebuild = changed;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            ConcurrentMap<Long, GradeStats> rebuilt = new ConcurrentHashMap<>();
+            boolean scanned = false;
+            try {
+                jdbcTemplate.query("SELECT " + column + ", " + AGGREGATES + " FROM enrollments" +
+                        " WHERE grade IS NOT NULL GROUP BY " + column, rs -> {
+                    rebuilt.put(rs.getLong(column), read(rs));
+                });
+                scanned = true;
+            } finally {
+                swapLock.writeLock().lock();
+                try {
+                    changedDuringRebuild = null;
+                    if (scanned) {
+                        stats = rebuilt;
+                        stale.clear();
+                        // The scan may have missed these changes or counted them already, read them again
+                        stale.addAll(changed);
+                        writes.forEach((key, keyWrites) -> {
+                            if (keyWrites.pending() > 0) {
+                                stale.add(key);
+                            }
+                        });
+                    }
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private record Writes(long lastChange, int pending) {
+    }
+}
@@ -0,0 +1,56 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+/**
+ * Running aggregate of the grades of one course or student; enrollments without a grade are not counted.
+ * Instances are immutable, adding or removing a grade returns a new instance.
+ */
+public record GradeStats(long count, double sum, double sumOfSquares, double min, double max) {
+
+    public static final GradeStats EMPTY = new GradeStats(0, 0, 0, Double.NaN, Double.NaN);
+
+    public GradeStats add(double grade) {
+        if (count == 0) {
+            return new GradeStats(1, grade, grade * grade, grade, grade);
+        }
+        return new GradeStats(count + 1, sum + grade, sumOfSquares + grade * grade,
+                Math.min(min, grade), Math.max(max, grade));
+    }
+
+    /**
+     * Remove a grade; min and max are kept and have to be recomputed if the grade was one of them
+     */
+    public GradeStats remove(double grade) {
+        if (count <= 1) {
+            return EMPTY;
+        }
+        return new GradeStats(count - 1, sum - grade, sumOfSquares - grade * grade, min, max);
+    }
+
+    /**
+     * Whether removing the grade leaves min or max unknown
+     */
+    public boolean isExtreme(double grade) {
+        return grade <= min || grade >= max;
+    }
+
+    public Double average() {
+        return count == 0 ? null : sum / count;
+    }
+
+    /**
+     * Population variance of the grades
+     */
+    public Double variance() {
+        if (count == 0) {
+            return null;
+        }
+        double mean = sum / count;
+        // Rounding can push the difference slightly below zero
+        return Math.max(0, sumOfSquares / count - mean * mean);
+    }
+
+    public Double standardDeviation() {
+        Double variance = variance();
+        return variance == null ? null : Math.sqrt(variance);
+    }
+}
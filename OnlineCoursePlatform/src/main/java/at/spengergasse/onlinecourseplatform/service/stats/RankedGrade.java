@@ -0,0 +1,7 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+/**
+ * Grade of a student in a course
+ */
+public record RankedGrade(long studentId, double grade) {
+}
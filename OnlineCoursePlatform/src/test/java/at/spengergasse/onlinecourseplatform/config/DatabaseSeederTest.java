@@ -0,0 +1,182 @@
+package at.spengergasse.onlinecourseplatform.config;
+
+import at.spengergasse.onlinecourseplatform.config.seeding.SeedMode;
+import at.spengergasse.onlinecourseplatform.config.seeding.SeedResult;
+import at.spengergasse.onlinecourseplatform.config.seeding.SeederProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"seeder.enabled=false", "seeder.scale=0.02", "seeder.chunk-size=250"})
+class DatabaseSeederTest {
+
+    @Autowired
+    private DatabaseSeeder databaseSeeder;
+
+    @Autowired
+    private SeederProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clear();
+        properties.setSeed(42);
+        properties.setParallelism(0);
+        properties.setMode(SeedMode.BATCH);
+        properties.setChunkSize(250);
+    }
+
+    private void clear() {
+        jdbcTemplate.update("DELETE FROM enrollments");
+        jdbcTemplate.update("DELETE FROM courses");
+        jdbcTemplate.update("DELETE FROM instructors");
+        jdbcTemplate.update("DELETE FROM students");
+    }
+
+    /**
+     * Rows with ids relative to the first id of their table, since ids are never reused
+     */
+    private List<Map<String, Object>> snapshot() {
+        String student = "(SELECT MIN(id) FROM students)";
+        String instructor = "(SELECT MIN(id) FROM instructors)";
+        String course = "(SELECT MIN(id) FROM courses)";
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id - (SELECT MIN(id) FROM enrollments) AS id, student_id - " + student + " AS student_id, " +
+                        "course_id - " + course + " AS course_id, grade FROM enrollments ORDER BY id");
+        rows.addAll(jdbcTemplate.queryForList(
+                "SELECT id - " + student + " AS id, first_name, email, date_of_birth, registration_date " +
+                        "FROM students ORDER BY id"));
+        rows.addAll(jdbcTemplate.queryForList(
+                "SELECT id - " + course + " AS id, name, instructor_id - " + instructor + " AS instructor_id " +
+                        "FROM courses ORDER BY id"));
+        return rows;
+    }
+
+    @Test
+    void testScaleDeterminesRowCounts() {
+        // when
+        SeedResult result = databaseSeeder.seed();
+
+        // then
+        assertThat(result.students()).isEqualTo(1000);
+        assertThat(result.instructors()).isEqualTo(10);
+        assertThat(result.courses()).isEqualTo(20);
+        assertThat(result.enrollments()).isBetween(1700L, 2300L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments", Long.class))
+                .isEqualTo(result.enrollments());
+    }
+
+    @Test
+    void testSameSeedProducesSameDataset() {
+        // given
+        properties.setParallelism(1);
+        databaseSeeder.seed();
+        List<Map<String, Object>> first = snapshot();
+        clear();
+
+        // when
+        properties.setParallelism(4);
+        databaseSeeder.seed();
+        List<Map<String, Object>> second = snapshot();
+
+        // then
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void testChunkSizeDoesNotChangeDataset() {
+        // given
+        databaseSeeder.seed();
+        List<Map<String, Object>> first = snapshot();
+        clear();
+
+        // when
+        properties.setChunkSize(96);
+        databaseSeeder.seed();
+
+        // then
+        assertThat(snapshot()).isEqualTo(first);
+    }
+
+    @Test
+    void testBulkModeProducesSameDatasetAsBatchMode() {
+        // given
+        databaseSeeder.seed();
+        List<Map<String, Object>> batch = snapshot();
+        clear();
+
+        // when
+        properties.setMode(SeedMode.BULK);
+        SeedResult result = databaseSeeder.seed();
+
+        // then
+        assertThat(snapshot()).isEqualTo(batch);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments WHERE version = 0", Long.class))
+                .isEqualTo(result.enrollments());
+    }
+
+    @Test
+    void testDifferentSeedProducesDifferentDataset() {
+        // given
+        databaseSeeder.seed();
+        List<Map<String, Object>> first = snapshot();
+        clear();
+
+        // when
+        properties.setSeed(7);
+        databaseSeeder.seed();
+
+        // then
+        assertThat(snapshot()).isNotEqualTo(first);
+    }
+
+    @Test
+    void testStudentsNeverEnrollTwiceInSameCourse() {
+        // when
+        databaseSeeder.seed();
+
+        // then
+        Long duplicates = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT student_id, course_id FROM enrollments " +
+                        "GROUP BY student_id, course_id HAVING COUNT(*) > 1) d", Long.class);
+        assertThat(duplicates).isZero();
+    }
+
+    @Test
+    void testCoursePopularityIsSkewed() {
+        // when
+        databaseSeeder.seed();
+
+        // then
+        List<Long> perCourse = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM enrollments GROUP BY course_id ORDER BY COUNT(*) DESC", Long.class);
+        assertThat(perCourse.get(0)).isGreaterThan(perCourse.get(perCourse.size() / 2) * 3);
+    }
+
+    @Test
+    void testGradesStayWithinValidRange() {
+        // when
+        databaseSeeder.seed();
+
+        // then
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(grade) AS min_grade, MAX(grade) AS max_grade FROM enrollments");
+        assertThat(((Number) range.get("min_grade")).doubleValue()).isGreaterThanOrEqualTo(0.0);
+        assertThat(((Number) range.get("max_grade")).doubleValue()).isLessThanOrEqualTo(100.0);
+    }
+}
@@ -0,0 +1,195 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class CsvBulkLoaderTest {
+
+    @Autowired
+    private CsvBulkLoader bulkLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM enrollments");
+        jdbcTemplate.update("DELETE FROM courses");
+        jdbcTemplate.update("DELETE FROM instructors");
+        jdbcTemplate.update("DELETE FROM students");
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportCsv() throws Exception {
+        // given
+        String content = """
+                first_name,last_name,email,date_of_birth,phone_number,address,registration_date
+                "Max","Mustermann","max@example.com",2000-01-15,"+431234567890",NULL,2024-09-01
+                "Anna","O""Brien, Jr.","anna@example.com",1999-05-20,NULL,"Wien, 1050",2024-09-02
+                """;
+
+        // when
+        IngestResult result = bulkLoader.importCsv("students", csv(content));
+
+        // then
+        assertThat(result.table()).isEqualTo("students");
+        assertThat(result.rows()).isEqualTo(2);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT last_name, phone_number, address, date_of_birth, version FROM students ORDER BY email");
+        assertThat(rows.get(0).get("LAST_NAME")).isEqualTo("O\"Brien, Jr.");
+        assertThat(rows.get(0).get("PHONE_NUMBER")).isNull();
+        assertThat(rows.get(0).get("ADDRESS")).isEqualTo("Wien, 1050");
+        assertThat(rows.get(1).get("ADDRESS")).isNull();
+        assertThat(rows.get(1).get("DATE_OF_BIRTH").toString()).isEqualTo("2000-01-15");
+        assertThat(rows.get(1).get("VERSION")).isEqualTo(0L);
+        assertThat(meterRegistry.counter("seeder.ingest.rows", "table", "students").count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void testSinkWritesGeneratedRows() {
+        // given
+        long rows;
+        try (RowSink sink = bulkLoader.open("students", List.of("id", "first_name", "last_name", "email",
+                "date_of_birth", "phone_number", "address", "registration_date"))) {
+
+            // when
+            sink.add(500L, "Lisa", "Berger", "lisa@example.com", LocalDate.of(2001, 3, 4), null, null,
+                    LocalDate.of(2024, 9, 1));
+            rows = sink.finish();
+        }
+
+        // then
+        assertThat(rows).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM students WHERE id = 500", String.class))
+                .isEqualTo("Lisa");
+    }
+
+    @Test
+    void testImportRejectsUnknownColumns() {
+        // given
+        String content = "first_name,password\n\"Max\",\"secret\"\n";
+
+        // when & then
+        assertThatThrownBy(() -> bulkLoader.importCsv("students", csv(content)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+        assertThatThrownBy(() -> bulkLoader.importCsv("users", csv(content)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testImportRejectsInvalidRecords() throws Exception {
+        // given
+        jdbcTemplate.update("INSERT INTO students (id, first_name, last_name, email, date_of_birth, registration_date,"
+                + " version) VALUES (1, 'Max', 'Mustermann', 'max@example.com', DATE '2000-01-15', DATE '2024-09-01', 0)");
+        jdbcTemplate.update("INSERT INTO courses (id, name, description, version)"
+                + " VALUES (1, 'Datenbanken', 'Grundlagen und Übungen', 0)");
+        String content = """
+                student_id,course_id,grade
+                1,1,87.5
+                1,1,100.5
+                1,2,50
+                2,1,NULL
+                NULL,1,60
+                1,1,abc
+                1,1
+                """;
+
+        // when
+        IngestResult result = bulkLoader.importCsv("enrollments", csv(content));
+
+        // then
+        assertThat(result.rows()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(6);
+        assertThat(result.rejects()).extracting(IngestResult.Reject::line).containsExactlyInAnyOrder(3L, 4L, 5L, 6L,
+                7L, 8L);
+        assertThat(result.rejects()).filteredOn(reject -> reject.line() == 4).singleElement()
+                .extracting(IngestResult.Reject::reason).asString().contains("courses");
+        assertThat(jdbcTemplate.queryForObject("SELECT grade FROM enrollments", Double.class)).isEqualTo(87.5);
+    }
+
+    @Test
+    void testImportLoadsTheCheckedValues() throws Exception {
+        // given
+        jdbcTemplate.update("INSERT INTO students (id, first_name, last_name, email, date_of_birth, registration_date,"
+                + " version) VALUES (1, 'Max', 'Mustermann', 'max@example.com', DATE '2000-01-15', DATE '2024-09-01', 0)");
+        jdbcTemplate.update("INSERT INTO courses (id, name, description, version)"
+                + " VALUES (1, 'Datenbanken', 'Grundlagen und Übungen', 0), (2, 'Netzwerke', 'Protokolle', 0)");
+        String content = """
+                student_id,course_id,grade
+                1, 1,
+                 1,2 , 75.0
+                """;
+
+        // when
+        IngestResult result = bulkLoader.importCsv("enrollments", csv(content));
+
+        // then
+        assertThat(result.rows()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT grade FROM enrollments ORDER BY course_id", Double.class))
+                .containsExactly(null, 75.0);
+    }
+
+    @Test
+    void testImportRejectsRecordsViolatingConstraints() throws Exception {
+        // given
+        String content = """
+                first_name,last_name,email,date_of_birth,registration_date
+                "Max","Mustermann","max@example.com",2000-01-15,2024-09-01
+                "A","Berger","no-email",2000-01-15,2024-09-01
+                "Lisa","Berger","lisa@example.com",2100-01-01,NULL
+                """;
+
+        // when
+        IngestResult result = bulkLoader.importCsv("students", csv(content));
+
+        // then
+        assertThat(result.rows()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.rejects().get(0).reason()).contains("email", "first_name");
+        assertThatThrownBy(() -> bulkLoader.importCsv("students", csv("first_name,last_name\n\"Max\",\"Muster\"\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("email");
+    }
+
+    @Test
+    void testClosingAnUnfinishedSinkDeletesItsFile() throws Exception {
+        // given
+        Path file = Files.createTempFile("students-", ".csv");
+        List<String> columns = List.of("id", "first_name");
+
+        // when
+        try (RowSink sink = new CsvFileSink(bulkLoader, "students", columns, file)) {
+            sink.add(501L, "Lisa");
+            // Generating the next row failed, the sink is never finished
+        }
+
+        // then
+        assertThat(file).doesNotExist();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class)).isZero();
+    }
+}
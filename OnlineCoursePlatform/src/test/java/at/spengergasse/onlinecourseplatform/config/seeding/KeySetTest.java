@@ -0,0 +1,54 @@
+package at.spengergasse.onlinecourseplatform.config.seeding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeySetTest {
+
+    @Test
+    void testRangeKeys() {
+        // when
+        KeySet keys = KeySet.range(10, 4);
+
+        // then
+        assertThat(keys.size()).isEqualTo(4);
+        assertThat(keys.get(0)).isEqualTo(10L);
+        assertThat(keys.get(3)).isEqualTo(13L);
+    }
+
+    @Test
+    void testRandomFromEmptyKeys() {
+        // given
+        KeySet keys = KeySet.range(1, 0);
+
+        // when & then
+        assertThat(keys.size()).isZero();
+        assertThatThrownBy(() -> keys.random(new SplittableRandom(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testRandomStaysWithinKeys() {
+        // given
+        KeySet keys = KeySet.range(5, 3);
+        SplittableRandom random = new SplittableRandom(42);
+
+        // when & then
+        for (int i = 0; i < 100; i++) {
+            assertThat(keys.random(random)).isIn(5L, 6L, 7L);
+        }
+    }
+
+    @Test
+    void testGetOutOfRange() {
+        // given
+        KeySet keys = KeySet.range(1, 2);
+
+        // when & then
+        assertThatThrownBy(() -> keys.get(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class EnrollmentIndexTest {
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long saveStudent() {
+        return studentRepository.save(Student.builder().firstName("Anna").lastName("Huber")
+                .email("anna.huber@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build()).getId();
+    }
+
+    private Long saveCourse() {
+        return courseRepository.save(Course.builder().name("Databases").description("Relational databases and SQL")
+                .build()).getId();
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toUpperCase();
+    }
+
+    @Test
+    void testCourseQueriesUseCoveringIndex() {
+        // when
+        String average = explain("SELECT AVG(grade) FROM enrollments WHERE course_id = 1 AND grade IS NOT NULL");
+        String count = explain("SELECT COUNT(*) FROM enrollments WHERE course_id = 1");
+
+        // then
+        assertThat(average).contains("IDX_ENROLLMENT_COURSE_GRADE").doesNotContain("TABLESCAN");
+        // H2 adds an index of its own for the foreign key on course_id, which covers the count just as well
+        assertThat(count).containsPattern("IDX_ENROLLMENT_COURSE_GRADE|FK_ENROLLMENT_COURSE_INDEX")
+                .doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    void testStudentQueriesUseIndex() {
+        // when
+        String average = explain("SELECT AVG(grade) FROM enrollments WHERE student_id = 1 AND grade IS NOT NULL");
+        String pair = explain("SELECT id FROM enrollments WHERE student_id = 1 AND course_id = 2");
+
+        // then
+        assertThat(average).contains("IDX_ENROLLMENT_STUDENT_GRADE").doesNotContain("TABLESCAN");
+        assertThat(pair).doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    void testBulkExistenceCheckUsesUniqueIndex() {
+        // when
+        String pairs = explain("SELECT id, student_id, course_id FROM enrollments" +
+                " WHERE (student_id, course_id) IN ((1, 2), (3, 4))");
+
+        // then
+        assertThat(pairs).contains("UK_ENROLLMENT_STUDENT_COURSE").doesNotContain("TABLESCAN");
+    }
+
+    @Test
+    void testStudentCanEnrollInCourseOnlyOnce() {
+        // given
+        Long studentId = saveStudent();
+        Long courseId = saveCourse();
+        enrollmentRepository.saveAndFlush(Enrollment.builder().studentId(studentId).courseId(courseId).build());
+
+        // when & then
+        assertThatThrownBy(() -> enrollmentRepository.saveAndFlush(
+                Enrollment.builder().studentId(studentId).courseId(courseId).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testEnrollmentsReferenceStudentsAndCourses() {
+        // when
+        List<String> foreignKeys = jdbcTemplate.queryForList("SELECT CONSTRAINT_NAME" +
+                " FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS" +
+                " WHERE TABLE_NAME = 'ENROLLMENTS' AND CONSTRAINT_TYPE = 'FOREIGN KEY'", String.class);
+
+        // then
+        assertThat(foreignKeys).containsExactlyInAnyOrder("FK_ENROLLMENT_STUDENT", "FK_ENROLLMENT_COURSE");
+    }
+
+    @Test
+    void testEnrollmentNeedsExistingStudentAndCourse() {
+        // given
+        Long studentId = saveStudent();
+        Long courseId = saveCourse();
+
+        // when & then
+        assertThatThrownBy(() -> enrollmentRepository.saveAndFlush(
+                Enrollment.builder().studentId(studentId + 1000).courseId(courseId).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> enrollmentRepository.saveAndFlush(
+                Enrollment.builder().studentId(studentId).courseId(courseId + 1000).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Students and courses for tests that only need their enrollments to refer to existing rows.
+ * Each is created on first use of its test-local key; the real id differs from the key.
+ */
+public class EnrollmentParents {
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final Map<Long, Long> students = new HashMap<>();
+    private final Map<Long, Long> courses = new HashMap<>();
+
+    public EnrollmentParents(StudentRepository studentRepository, CourseRepository courseRepository) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+    }
+
+    public long student(long key) {
+        return students.computeIfAbsent(key, k -> studentRepository.save(Student.builder().firstName("Test")
+                .lastName("Student").email("student" + k + "@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build()).getId());
+    }
+
+    public long course(long key) {
+        return courses.computeIfAbsent(key, k -> courseRepository.save(Course.builder().name("Course " + k)
+                .description("Course referenced by enrollments").build()).getId());
+    }
+
+    /**
+     * Delete the created students and courses; their enrollments have to be deleted first
+     */
+    public void deleteAll() {
+        courseRepository.deleteAllById(courses.values());
+        studentRepository.deleteAllById(students.values());
+        courses.clear();
+        students.clear();
+    }
+}
@@ -1,12 +1,16 @@
 package at.spengergasse.onlinecourseplatform.persistence;
 
 import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +36,18 @@ class EnrollmentRepositoryTest {
         enrollmentRepository.deleteAll();
         entityManager.flush();
 
+        // Students and courses the enrollments below refer to by id, their own generators are never used here
+        for (long id = 1; id <= 5; id++) {
+            entityManager.getEntityManager().createNativeQuery("MERGE INTO students" +
+                            " (id, first_name, last_name, email, date_of_birth, registration_date, version) KEY (id)" +
+                            " VALUES (?1, 'Test', 'Student', ?2, DATE '2000-01-01', CURRENT_DATE, 0)")
+                    .setParameter(1, id).setParameter(2, "student" + id + "@student.uni.de").executeUpdate();
+            entityManager.getEntityManager().createNativeQuery("MERGE INTO courses" +
+                            " (id, name, description, version) KEY (id)" +
+                            " VALUES (?1, 'Course', 'Course referenced by enrollments', 0)")
+                    .setParameter(1, id).executeUpdate();
+        }
+
         // Create test data
         enrollment1 = Enrollment.builder()
                 .studentId(1L)
@@ -484,6 +500,35 @@ class EnrollmentRepositoryTest {
                 .containsExactlyInAnyOrder(2L, 3L);
     }
 
+    @Test
+    void testBulkDeleteLeavesNoStaleCopies() {
+        // given
+        Enrollment loaded = enrollmentRepository.findById(enrollment1.getId()).orElseThrow();
+        loaded.setGrade(55.0);
+
+        // when
+        int deleted = enrollmentRepository.deleteByCourseId(loaded.getCourseId());
+
+        // then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(entityManager.getEntityManager().contains(loaded)).isFalse();
+        assertThat(enrollmentRepository.findById(enrollment1.getId())).isEmpty();
+    }
+
+    @Test
+    void testDeleteInIdRanges() {
+        // given
+        List<EnrollmentDtos.Dto> lowest = enrollmentRepository.findDtosByStudentIdOrderById(1L, Limit.of(1));
+
+        // when
+        int deleted = enrollmentRepository.deleteByStudentIdUpTo(1L, lowest.getFirst().id());
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(enrollmentRepository.findDtosByStudentIdOrderById(1L, Limit.unlimited())).hasSize(1)
+                .allMatch(enrollment -> enrollment.id() > lowest.getFirst().id() && enrollment.studentId() == 1L);
+    }
+
     @Test
     void testDeleteByCourseIdNoMatches() {
         // when
@@ -613,4 +658,42 @@ class EnrollmentRepositoryTest {
         assertThat(student3Enrollments).extracting(Enrollment::getGrade)
                 .containsExactlyInAnyOrder(75.0, 80.0);
     }
+
+    @Test
+    void testKeysetWindowsCoverAllRowsOnce() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+
+        // when
+        do {
+            Window<Enrollment> window = enrollmentRepository.findAllByOrderById(KeysetToken.decode(token), Limit.of(3));
+            window.forEach(enrollment -> ids.add(enrollment.getId()));
+            token = KeysetToken.next(window);
+        } while (token != null);
+
+        // then
+        assertThat(ids).containsExactly(enrollment1.getId(), enrollment2.getId(), enrollment3.getId(),
+                enrollment4.getId());
+    }
+
+    @Test
+    void testKeysetWindowsSortedByGradeWithTies() {
+        // given
+        entityManager.persist(Enrollment.builder().studentId(4L).courseId(1L).grade(85.5).build());
+        entityManager.flush();
+        List<Double> grades = new ArrayList<>();
+        String token = null;
+
+        // when
+        do {
+            Window<Enrollment> window = enrollmentRepository.findByCourseIdAndGradeIsNotNullOrderByGradeDescIdAsc(
+                    1L, KeysetToken.decode(token), Limit.of(1));
+            window.forEach(enrollment -> grades.add(enrollment.getGrade()));
+            token = KeysetToken.next(window);
+        } while (token != null);
+
+        // then
+        assertThat(grades).containsExactly(85.5, 85.5, 78.5);
+    }
 }
@@ -0,0 +1,82 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class IdBlockAllocatorTest {
+
+    @Autowired
+    private IdBlockAllocator idAllocator;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private Enrollment saveEnrollment(String email) {
+        Long studentId = studentRepository.save(Student.builder().firstName("Anna").lastName("Huber").email(email)
+                .dateOfBirth(LocalDate.of(2000, 1, 1)).build()).getId();
+        Long courseId = courseRepository.save(Course.builder().name("Databases")
+                .description("Relational databases and SQL").build()).getId();
+        return enrollmentRepository.save(Enrollment.builder().studentId(studentId).courseId(courseId).build());
+    }
+
+    @Test
+    void testReservedBlocksDoNotOverlap() {
+        // when
+        long first = idAllocator.reserve("courses", 100);
+        long second = idAllocator.reserve("courses", 10);
+
+        // then
+        assertThat(second).isEqualTo(first + 100);
+    }
+
+    @Test
+    void testReservedIdsAreNeverGeneratedByHibernate() {
+        // given
+        Long before = saveEnrollment("first@student.uni.de").getId();
+
+        // when
+        long reserved = idAllocator.reserve("enrollments", 1000);
+        Long after = saveEnrollment("second@student.uni.de").getId();
+
+        // then
+        assertThat(reserved).isGreaterThan(before);
+        assertThat(after < reserved || after >= reserved + 1000).isTrue();
+    }
+
+    @Test
+    void testAdvancePastImportedIds() {
+        // given
+        long next = idAllocator.reserve("instructors", 0);
+
+        // when
+        idAllocator.advancePast("instructors", next + 500);
+
+        // then
+        assertThat(idAllocator.reserve("instructors", 1)).isEqualTo(next + 501);
+        idAllocator.advancePast("instructors", 1);
+        assertThat(idAllocator.reserve("instructors", 1)).isEqualTo(next + 502);
+    }
+}
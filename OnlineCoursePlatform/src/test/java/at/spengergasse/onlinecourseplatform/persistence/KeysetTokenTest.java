@@ -0,0 +1,53 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetTokenTest {
+
+    @Test
+    void testRoundTrip() {
+        // given
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("grade", 87.5);
+        keys.put("registrationDate", LocalDate.of(2024, 9, 1));
+        keys.put("name", "Datenbanken");
+        keys.put("id", 4711L);
+        keys.put("description", null);
+
+        // when
+        String token = KeysetToken.encode(ScrollPosition.forward(keys));
+        KeysetScrollPosition position = KeysetToken.decode(token);
+
+        // then
+        assertThat(token).doesNotContain("+", "/", "=");
+        assertThat(position.scrollsForward()).isTrue();
+        assertThat(position.getKeys()).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void testMissingTokenStartsAtFirstRow() {
+        // when & then
+        assertThat(KeysetToken.decode(null).isInitial()).isTrue();
+        assertThat(KeysetToken.decode("").isInitial()).isTrue();
+    }
+
+    @Test
+    void testInvalidTokens() {
+        // when & then
+        assertThatThrownBy(() -> KeysetToken.decode("not a token"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetToken.decode("AQAB"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetToken.encode(ScrollPosition.offset(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,147 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class LookupCacheTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private Student saveStudent(String email) {
+        return studentRepository.save(Student.builder().firstName("Anna").lastName("Huber").email(email)
+                .dateOfBirth(LocalDate.of(2001, 5, 3)).build());
+    }
+
+    @Test
+    void testLookupIgnoresCaseAndFollowsWrites() {
+        // given
+        Student student = saveStudent("anna.huber@student.uni.de");
+        studentRepository.findIdByEmailIgnoreCase("Anna.Huber@student.uni.de");
+
+        // when
+        statistics.clear();
+        Optional<Long> cached = studentRepository.findIdByEmailIgnoreCase("ANNA.HUBER@STUDENT.UNI.DE");
+
+        // then
+        assertThat(cached).contains(student.getId());
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+
+        // when
+        student.setEmail("anna.maier@student.uni.de");
+        studentRepository.save(student);
+
+        // then
+        assertThat(studentRepository.findIdByEmailIgnoreCase("anna.huber@student.uni.de")).isEmpty();
+        assertThat(studentRepository.findIdByEmailIgnoreCase("Anna.Maier@student.uni.de")).contains(student.getId());
+    }
+
+    @Test
+    void testCachedLookupsNeverShareAnInstance() {
+        // given
+        courseRepository.save(Course.builder().name("Databases").description("Relational databases and SQL")
+                .build());
+        Course course = courseRepository.findById(courseRepository.findIdByNameIgnoreCase("databases").orElseThrow())
+                .orElseThrow();
+
+        // when
+        course.setDescription("Changed by another request");
+        statistics.clear();
+        Course other = courseRepository.findById(courseRepository.findIdByNameIgnoreCase("Databases").orElseThrow())
+                .orElseThrow();
+
+        // then
+        assertThat(other).isNotSameAs(course);
+        assertThat(other.getDescription()).isEqualTo("Relational databases and SQL");
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testConcurrentMissesRunOneQuery() throws Exception {
+        // given
+        Long id = saveStudent("lena.gruber@student.uni.de").getId();
+        statistics.clear();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Optional<Long>> lookup = () -> {
+            start.await();
+            return studentRepository.findIdByEmailIgnoreCase("lena.gruber@student.uni.de");
+        };
+
+        // when
+        List<Future<Optional<Long>>> results;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            results = IntStream.range(0, threads).mapToObj(i -> executor.submit(lookup)).toList();
+            start.countDown();
+            for (Future<Optional<Long>> result : results) {
+                assertThat(result.get()).contains(id);
+            }
+        }
+
+        // then
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testEnrollmentCountFollowsWrites() {
+        // given
+        Long courseId = courseRepository.save(Course.builder().name("Databases")
+                .description("Relational databases and SQL").build()).getId();
+        enrollmentRepository.save(Enrollment.builder().studentId(saveStudent("anna@student.uni.de").getId())
+                .courseId(courseId).build());
+        assertThat(enrollmentRepository.countByCourseId(courseId)).isEqualTo(1);
+
+        // when
+        enrollmentRepository.save(Enrollment.builder().studentId(saveStudent("ben@student.uni.de").getId())
+                .courseId(courseId).build());
+
+        // then
+        assertThat(enrollmentRepository.countByCourseId(courseId)).isEqualTo(2);
+    }
+}
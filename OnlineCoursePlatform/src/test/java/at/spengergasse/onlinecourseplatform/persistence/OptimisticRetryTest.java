@@ -0,0 +1,73 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetry retry = new OptimisticRetry(meterRegistry);
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "entity", "Enrollment").count();
+    }
+
+    @Test
+    void testRetriesUntilTheWriteWins() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        String result = retry.call(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Enrollment.class, 1L);
+            }
+            return "written";
+        });
+
+        // then
+        assertThat(result).isEqualTo("written");
+        assertThat(attempts).hasValue(3);
+        assertThat(count("optimistic.lock.conflicts")).isEqualTo(2);
+        assertThat(count("optimistic.lock.retries")).isEqualTo(2);
+        assertThat(count("optimistic.lock.failures")).isZero();
+    }
+
+    @Test
+    void testGivesUpAfterTheLastAttempt() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when & then
+        assertThatThrownBy(() -> retry.call(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Enrollment.class, 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(OptimisticRetry.MAX_ATTEMPTS);
+        assertThat(count("optimistic.lock.conflicts")).isEqualTo(OptimisticRetry.MAX_ATTEMPTS);
+        assertThat(count("optimistic.lock.retries")).isEqualTo(OptimisticRetry.MAX_ATTEMPTS - 1);
+        assertThat(count("optimistic.lock.failures")).isEqualTo(1);
+    }
+
+    @Test
+    void testDoesNotRetryOtherFailures() {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when & then
+        assertThatThrownBy(() -> retry.call(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(1);
+        assertThat(count("optimistic.lock.conflicts")).isZero();
+    }
+}
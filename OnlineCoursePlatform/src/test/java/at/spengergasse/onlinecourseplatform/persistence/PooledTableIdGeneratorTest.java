@@ -0,0 +1,49 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own context with its own block size, so no other test used the generators before; committed rows,
+// so the generator's own transaction sees them
+@DataJpaTest(properties = "spring.jpa.properties.onlinecourseplatform.id.allocation_size=10")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PooledTableIdGeneratorTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void testGeneratedIdsStartBehindExistingRows() {
+        // given
+        jdbcTemplate.update("INSERT INTO students" +
+                " (id, first_name, last_name, email, date_of_birth, registration_date, version)" +
+                " VALUES (500, 'Anna', 'Huber', 'anna.huber@student.uni.de', DATE '2000-01-01', CURRENT_DATE, 0)");
+
+        // when
+        Student student = studentRepository.save(Student.builder().firstName("Ben").lastName("Gruber")
+                .email("ben.gruber@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build());
+
+        // then
+        assertThat(student.getId()).isEqualTo(501L);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = 'students'",
+                Long.class)).isEqualTo(510L);
+    }
+}
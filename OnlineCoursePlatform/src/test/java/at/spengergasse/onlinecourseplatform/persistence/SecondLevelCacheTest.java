@@ -0,0 +1,110 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAll();
+    }
+
+    private Course saveCourse(String name, long instructorId) {
+        return courseRepository.save(Course.builder().name(name).description("Grundlagen und Übungen")
+                .instructorId(instructorId).build());
+    }
+
+    @Test
+    void testFindByIdIsServedFromCache() {
+        // given
+        Course course = saveCourse("Analysis", 1L);
+
+        // when
+        courseRepository.findById(course.getId());
+        course.setName("Analysis II");
+        courseRepository.save(course);
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+
+        // then
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+        assertThat(reloaded.getName()).isEqualTo("Analysis II");
+        assertThat(reloaded.getVersion()).isEqualTo(course.getVersion() + 1);
+    }
+
+    @Test
+    void testQueryCacheFollowsWrites() {
+        // given
+        saveCourse("Analysis", 7L);
+        courseRepository.findByInstructorId(7L);
+
+        // when
+        long before = statistics.getQueryCacheHitCount();
+        courseRepository.findByInstructorId(7L);
+        long hits = statistics.getQueryCacheHitCount() - before;
+        saveCourse("Algebra", 7L);
+
+        // then
+        assertThat(hits).isEqualTo(1);
+        assertThat(courseRepository.findByInstructorId(7L)).hasSize(2);
+    }
+
+    @Test
+    void testJdbcWritesEvictCachedCourses() {
+        // given
+        Course course = saveCourse("Analysis", 1L);
+        courseRepository.findById(course.getId());
+
+        // when
+        jdbcTemplate.update("UPDATE courses SET name = 'Lineare Algebra' WHERE id = ?", course.getId());
+        eventPublisher.publishEvent(new TableChangedEvent("courses"));
+
+        // then
+        assertThat(courseRepository.findById(course.getId())).get()
+                .extracting(Course::getName).isEqualTo("Lineare Algebra");
+    }
+
+    @Test
+    void testCacheStatisticsArePublished() {
+        // then
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "courses").meters())
+                .isNotEmpty();
+    }
+}
@@ -0,0 +1,94 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class StudentSearchTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        instructorRepository.deleteAll();
+    }
+
+    private Student saveStudent(String firstName, String lastName) {
+        return studentRepository.save(Student.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@student.uni.de")
+                .dateOfBirth(LocalDate.of(2000, 1, 1))
+                .build());
+    }
+
+    @Test
+    void testIndexedSearchMatchesLikeQuery() {
+        // given
+        saveStudent("Anna", "Hoffmann");
+        saveStudent("Lukas", "Hofer");
+        saveStudent("Emma", "Becker");
+
+        // when
+        Page<Student> page = studentRepository.searchStudents("hof", PageRequest.of(0, 10));
+
+        // then
+        assertThat(page.getContent()).containsExactlyInAnyOrderElementsOf(studentRepository.searchStudents("hof"));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void testIndexFollowsUpdatesAndDeletes() {
+        // given
+        Student student = saveStudent("Paul", "Wagner");
+        assertThat(studentRepository.searchStudentIds("wagner", PageRequest.of(0, 10))).hasSize(1);
+
+        // when
+        student.setLastName("Schulz");
+        student.setEmail("paul.schulz@student.uni.de");
+        Student updated = studentRepository.save(student);
+
+        // then
+        assertThat(studentRepository.searchStudentIds("wagner", PageRequest.of(0, 10))).isEmpty();
+        assertThat(studentRepository.searchStudentIds("schulz", PageRequest.of(0, 10)))
+                .containsExactly(updated.getId());
+
+        // when
+        studentRepository.delete(updated);
+
+        // then
+        assertThat(studentRepository.searchStudentIds("schulz", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void testInstructorSearchIncludesDepartment() {
+        // given
+        Instructor instructor = instructorRepository.save(Instructor.builder()
+                .firstName("Erika")
+                .lastName("Musterfrau")
+                .email("erika.musterfrau@uni.de")
+                .department("Mathematik")
+                .build());
+
+        // when & then
+        assertThat(instructorRepository.searchInstructorIds("THEMA", PageRequest.of(0, 10)))
+                .containsExactly(instructor.getId());
+        assertThat(instructorRepository.searchInstructors("muster", PageRequest.of(0, 10)).getContent())
+                .extracting(Instructor::getEmail).containsExactly("erika.musterfrau@uni.de");
+    }
+}
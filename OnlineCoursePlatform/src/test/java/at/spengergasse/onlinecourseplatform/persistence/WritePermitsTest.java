@@ -0,0 +1,75 @@
+package at.spengergasse.onlinecourseplatform.persistence;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WritePermitsTest {
+
+    private static WritePermits permitsFor(int poolSize) throws Exception {
+        // The pool is never started, only its configuration is read
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(250);
+        return new WritePermits(dataSource);
+    }
+
+    @Test
+    void testLeavesOneConnectionForTheIdGenerator() throws Exception {
+        // when
+        WritePermits permits = permitsFor(10);
+
+        // then
+        assertThat(permits.available()).isEqualTo(9);
+        assertThat(permits.call(() -> permits.available())).isEqualTo(8);
+        assertThat(permits.available()).isEqualTo(9);
+    }
+
+    @Test
+    void testReleasesThePermitWhenTheWriteFails() throws Exception {
+        // given
+        WritePermits permits = permitsFor(2);
+
+        // when
+        assertThatThrownBy(() -> permits.call(() -> {
+            throw new IllegalStateException("Rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(permits.available()).isEqualTo(1);
+    }
+
+    @Test
+    void testTimesOutWhenAllPermitsAreTaken() throws Exception {
+        // given
+        WritePermits permits = permitsFor(2);
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> permits.call(() -> {
+                taken.countDown();
+                try {
+                    return done.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            taken.await();
+
+            // when & then
+            assertThatThrownBy(() -> permits.call(() -> null))
+                    .isInstanceOf(CannotGetJdbcConnectionException.class);
+            done.countDown();
+        }
+        assertThat(permits.available()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,60 @@
+package at.spengergasse.onlinecourseplatform.persistence.columnar;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = "analytics.columnar.enabled=true")
+class ColumnarEnrollmentStoreTest {
+
+    @Autowired
+    private ColumnarEnrollmentStore store;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void testStoreMatchesEnrollmentsTable() {
+        // given
+        Enrollment enrollment = enrollmentRepository.findAll().getFirst();
+        long courseId = enrollment.getCourseId();
+
+        // when
+        enrollment.setGrade(enrollment.getGrade() == null ? 100.0 : null);
+        enrollmentRepository.save(enrollment);
+
+        // then
+        EnrollmentColumns columns = store.columns();
+        assertThat(columns.size()).isEqualTo(enrollmentRepository.count());
+        assertThat(columns.countOfCourse(courseId)).isEqualTo(enrollmentRepository.countByCourseId(courseId));
+        assertThat(columns.countUngraded()).isEqualTo(enrollmentRepository.findByGradeIsNull().size());
+        assertThat(columns.averageGradeOfCourse(courseId))
+                .isCloseTo(enrollmentRepository.calculateAverageGradeByCourseId(courseId), within(1e-4));
+    }
+
+    @Test
+    void testReloadLeavesTheColumnsOfReadersComplete() {
+        // given
+        EnrollmentColumns before = store.columns();
+        int size = before.size();
+
+        // when
+        eventPublisher.publishEvent(new TableChangedEvent("enrollments"));
+        EnrollmentColumns after = store.columns();
+
+        // then
+        assertThat(after).isNotSameAs(before);
+        assertThat(before.size()).isEqualTo(size);
+        assertThat(after.size()).isEqualTo(enrollmentRepository.count());
+    }
+}
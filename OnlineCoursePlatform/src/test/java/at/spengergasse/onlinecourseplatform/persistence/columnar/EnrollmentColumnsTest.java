@@ -0,0 +1,103 @@
+package at.spengergasse.onlinecourseplatform.persistence.columnar;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EnrollmentColumnsTest {
+
+    @Test
+    void testAggregates() {
+        // given
+        EnrollmentColumns columns = new EnrollmentColumns();
+        columns.put(1, 100, 10, 60.0);
+        columns.put(2, 101, 10, 80.0);
+        columns.put(3, 100, 20, null);
+        columns.put(4, 102, 20, 72.3);
+
+        // then
+        assertThat(columns.size()).isEqualTo(4);
+        assertThat(columns.countOfCourse(10)).isEqualTo(2);
+        assertThat(columns.countOfStudent(100)).isEqualTo(2);
+        assertThat(columns.averageGradeOfCourse(10)).isCloseTo(70.0, within(1e-6));
+        assertThat(columns.averageGradeOfStudent(100)).isCloseTo(60.0, within(1e-6));
+        assertThat(columns.averageGrade()).isCloseTo(212.3 / 3, within(1e-4));
+        assertThat(columns.countGradesBetween(60.0, 72.3)).isEqualTo(2);
+        assertThat(columns.countUngraded()).isEqualTo(1);
+        assertThat(columns.averageGradeByCourse()).containsOnlyKeys(10L, 20L);
+        assertThat(columns.averageGradeOfCourse(30)).isNull();
+    }
+
+    @Test
+    void testPutMovesAndRemoves() {
+        // given
+        EnrollmentColumns columns = new EnrollmentColumns();
+        columns.put(1, 100, 10, 60.0);
+        columns.put(2, 101, 10, 80.0);
+
+        // when
+        columns.put(1, 100, 20, null);
+        columns.remove(2);
+
+        // then
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.countOfCourse(10)).isZero();
+        assertThat(columns.countOfCourse(20)).isEqualTo(1);
+        assertThat(columns.averageGradeOfCourse(20)).isNull();
+        assertThat(columns.averageGrade()).isNull();
+        assertThat(columns.countUngraded()).isEqualTo(1);
+    }
+
+    @Test
+    void testReplaceCourse() {
+        // given
+        EnrollmentColumns columns = new EnrollmentColumns();
+        columns.put(1, 100, 10, 60.0);
+        columns.put(2, 101, 10, 80.0);
+        columns.put(3, 100, 20, 70.0);
+
+        // when
+        columns.replaceCourse(10, List.of(new Enrollment(2L, 101L, 10L, 90.0, 1L),
+                new Enrollment(4L, 102L, 10L, null, 0L)));
+
+        // then
+        assertThat(columns.size()).isEqualTo(3);
+        assertThat(columns.countOfCourse(10)).isEqualTo(2);
+        assertThat(columns.averageGradeOfCourse(10)).isCloseTo(90.0, within(1e-6));
+        assertThat(columns.countOfStudent(100)).isEqualTo(1);
+        assertThat(columns.averageGradeOfCourse(20)).isCloseTo(70.0, within(1e-6));
+    }
+
+    @Test
+    void testCompactionKeepsLiveRows() {
+        // given
+        EnrollmentColumns columns = new EnrollmentColumns();
+        for (int id = 0; id < 5000; id++) {
+            columns.put(id, id % 100, id % 7, id % 3 == 0 ? null : (double) (id % 101));
+        }
+
+        // when
+        for (int id = 0; id < 5000; id += 2) {
+            columns.remove(id);
+        }
+        columns.put(5001, 1, 3, 50.0);
+
+        // then
+        long graded = 0;
+        double sum = 0;
+        for (int id = 1; id < 5000; id += 2) {
+            if (id % 3 != 0) {
+                graded++;
+                sum += id % 101;
+            }
+        }
+        assertThat(columns.size()).isEqualTo(2501);
+        assertThat(columns.countUngraded()).isEqualTo(2500 - graded);
+        assertThat(columns.averageGrade()).isCloseTo((sum + 50) / (graded + 1), within(1e-6));
+        assertThat(columns.countOfStudent(1)).isEqualTo(51);
+    }
+}
@@ -0,0 +1,67 @@
+package at.spengergasse.onlinecourseplatform.persistence.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(3, "Anna", "Müller", "anna.mueller@student.uni.de");
+        index.put(1, "Lukas", "Schmidt", "lukas.schmidt@student.uni.de");
+        index.put(2, "Sophie", "Schneider", null);
+    }
+
+    @Test
+    void testContainsSearchIsCaseInsensitive() {
+        // when & then
+        assertThat(index.search("SCHMID", Pageable.unpaged())).containsExactly(1L);
+        assertThat(index.search("chn", Pageable.unpaged())).containsExactly(2L);
+        assertThat(index.search("student.uni", Pageable.unpaged())).containsExactly(1L, 3L);
+        assertThat(index.search("muller", Pageable.unpaged())).containsExactly(3L);
+    }
+
+    @Test
+    void testAllTrigramsPresentButNoSubstring() {
+        // "ann" and "nna" both occur in "anna", "annna" does not
+        assertThat(index.search("annna", Pageable.unpaged())).isEmpty();
+    }
+
+    @Test
+    void testShortTerms() {
+        // when & then
+        assertThat(index.search("ch", Pageable.unpaged())).containsExactly(1L, 2L);
+        assertThat(index.search("", Pageable.unpaged())).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletes() {
+        // when
+        index.put(1, "Lukas", "Weber", "lukas.weber@student.uni.de");
+        index.remove(3);
+
+        // then
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("schmidt", Pageable.unpaged())).isEmpty();
+        assertThat(index.search("weber", Pageable.unpaged())).containsExactly(1L);
+        assertThat(index.search("anna", Pageable.unpaged())).isEmpty();
+    }
+
+    @Test
+    void testPagination() {
+        // when
+        Page<Long> page = index.search("s", PageRequest.of(1, 2));
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).containsExactly(3L);
+    }
+}
@@ -0,0 +1,59 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+@AutoConfigureMockMvc
+class CourseRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAll();
+    }
+
+    private Course saveCourse(String name, String description) {
+        return courseRepository.save(Course.builder().name(name).description(description).instructorId(1L).build());
+    }
+
+    @Test
+    void testSearchRanksIndexedCourses() throws Exception {
+        // given
+        Course statistik = saveCourse("Statistik", "Wahrscheinlichkeit und Thermodynamik im Vergleich");
+        Course thermodynamik = saveCourse("Thermodynamik", "Wärmelehre mit praktischen Übungen");
+        saveCourse("Analysis", "Grundlagen der Analysis");
+
+        // when & then
+        mockMvc.perform(get("/api/courses/search").param("q", "thermo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id",
+                        contains(thermodynamik.getId().intValue(), statistik.getId().intValue())))
+                .andExpect(jsonPath("$.content[0].description").value("Wärmelehre mit praktischen Übungen"))
+                .andExpect(jsonPath("$.page.totalElements").value(2));
+        mockMvc.perform(get("/api/courses/search").param("q", "thermo").param("size", "1").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("Statistik")))
+                .andExpect(jsonPath("$.page.totalElements").value(2));
+        mockMvc.perform(get("/api/courses/search").param("q", "chemie"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.page.totalElements").value(0));
+    }
+}
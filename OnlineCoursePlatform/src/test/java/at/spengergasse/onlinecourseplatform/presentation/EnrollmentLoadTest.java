@@ -0,0 +1,187 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent {@code POST /api/enrollments} requests against the default platform-thread Tomcat pool and against
+ * the virtual-threads profile, each on its own MySQL container with the same connection pool and timeouts.
+ * Run with {@code mvn test -Pload-test}, needs Docker; throughput, latency percentiles and the requests
+ * rejected with 503 for want of a connection are logged.
+ */
+@Tag("load")
+class EnrollmentLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentLoadTest.class);
+
+    private static final int CLIENTS = 500;
+    private static final int STUDENTS = 500;
+    private static final int COURSES = 4;
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @Import(MySql.class)
+    class PlatformThreads extends LoadScenario {
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @Import(MySql.class)
+    @ActiveProfiles("virtual-threads")
+    class VirtualThreads extends LoadScenario {
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class MySql {
+
+        @Bean
+        @ServiceConnection
+        MySQLContainer<?> mysql() {
+            return new MySQLContainer<>(DockerImageName.parse("mysql:8.4"))
+                    .withUrlParam("rewriteBatchedStatements", "true");
+        }
+    }
+
+    /**
+     * Only the thread model differs: pool, timeouts and connector limits override the virtual-threads profile
+     */
+    @TestPropertySource(properties = {
+            "seeder.enabled=false", "spring.jpa.show-sql=false",
+            "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+            "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+            "spring.datasource.hikari.maximum-pool-size=20", "spring.datasource.hikari.minimum-idle=20",
+            "spring.datasource.hikari.connection-timeout=3000",
+            "server.tomcat.max-connections=10000", "server.tomcat.accept-count=1000"})
+    abstract static class LoadScenario {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private StudentRepository studentRepository;
+
+        @Autowired
+        private CourseRepository courseRepository;
+
+        @Autowired
+        private EnrollmentRepository enrollmentRepository;
+
+        private List<Long> studentIds;
+        private List<Long> courseIds;
+
+        @BeforeEach
+        void setUp() {
+            studentIds = studentRepository.saveAll(IntStream.range(0, STUDENTS)
+                    .mapToObj(i -> Student.builder().firstName("Load").lastName("Student")
+                            .email("load" + i + "@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build())
+                    .toList()).stream().map(Student::getId).toList();
+            courseIds = courseRepository.saveAll(IntStream.range(0, COURSES)
+                    .mapToObj(i -> Course.builder().name("Load course " + i)
+                            .description("Course used by the load test").build())
+                    .toList()).stream().map(Course::getId).toList();
+        }
+
+        @AfterEach
+        void tearDown() {
+            enrollmentRepository.deleteAll();
+            courseRepository.deleteAll();
+            studentRepository.deleteAll();
+        }
+
+        @Test
+        void testConcurrentEnrollments() throws Exception {
+            // given
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10)).build();
+            URI uri = URI.create("http://localhost:" + port + "/api/enrollments");
+            Semaphore inFlight = new Semaphore(CLIENTS);
+            List<Future<long[]>> responses = new ArrayList<>();
+
+            // when
+            long startTime = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Long courseId : courseIds) {
+                    for (Long studentId : studentIds) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}"))
+                                .build();
+                        responses.add(executor.submit(() -> {
+                            inFlight.acquire();
+                            try {
+                                long sent = System.nanoTime();
+                                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                return new long[]{status, System.nanoTime() - sent};
+                            } finally {
+                                inFlight.release();
+                            }
+                        }));
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - startTime;
+
+            // then
+            long[] latencies = new long[responses.size()];
+            long created = 0;
+            long unavailable = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                long[] response = responses.get(i).get();
+                created += response[0] == 201 ? 1 : 0;
+                unavailable += response[0] == 503 ? 1 : 0;
+                latencies[i] = response[1];
+            }
+            Arrays.sort(latencies);
+            logger.info("{}: {} requests, {} concurrent, {} req/s, p50 {} ms, p99 {} ms, max {} ms, {} with 503",
+                    getClass().getSimpleName(), latencies.length, CLIENTS,
+                    latencies.length * 1_000_000_000L / elapsed, millis(latencies, 0.5), millis(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1_000_000, unavailable);
+            // Overload is answered with 503, how many depends on the machine; anything else is a failure
+            assertThat(created + unavailable).isEqualTo(latencies.length);
+            assertThat(enrollmentRepository.count()).isEqualTo(created);
+        }
+
+        private static long millis(long[] sorted, double quantile) {
+            return sorted[(int) Math.ceil(quantile * sorted.length) - 1] / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+@AutoConfigureMockMvc
+class EnrollmentRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Long studentId;
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        studentId = studentRepository.save(Student.builder().firstName("Anna").lastName("Huber")
+                .email("anna.huber@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build()).getId();
+        courseId = courseRepository.save(Course.builder().name("Databases")
+                .description("Relational databases and SQL").build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private ResultActions enroll(Object studentId, Object courseId) throws Exception {
+        return mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}"));
+    }
+
+    @Test
+    void testEnroll() throws Exception {
+        // when
+        String location = enroll(studentId, courseId)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.studentId").value(studentId))
+                .andExpect(jsonPath("$.courseId").value(courseId))
+                .andExpect(jsonPath("$.grade").doesNotExist())
+                .andReturn().getResponse().getHeader("Location");
+
+        // then
+        assertThat(enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)).isTrue();
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courseId").value(courseId));
+    }
+
+    @Test
+    void testEnrollTwiceConflicts() throws Exception {
+        // given
+        enroll(studentId, courseId).andExpect(status().isCreated());
+
+        // when & then
+        enroll(studentId, courseId)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$").value(endsWith("already enrolled in course " + courseId)));
+        assertThat(enrollmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testEnrollInFullCourseConflicts() throws Exception {
+        // given
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        course.setCapacity(1);
+        courseRepository.save(course);
+        Long otherStudentId = studentRepository.save(Student.builder().firstName("Ben").lastName("Gruber")
+                .email("ben.gruber@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build()).getId();
+        enroll(studentId, courseId).andExpect(status().isCreated());
+
+        // when & then
+        enroll(otherStudentId, courseId)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$").value("Course " + courseId + " is full"));
+        assertThat(enrollmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testEnrollUnknownStudentOrCourse() throws Exception {
+        // when & then
+        enroll(studentId + 1000, courseId)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$").value(endsWith("not found")));
+        enroll(studentId, courseId + 1000).andExpect(status().isNotFound());
+        enroll(studentId, null).andExpect(status().isBadRequest());
+        assertThat(enrollmentRepository.count()).isZero();
+    }
+
+    @Test
+    void testBulkEnroll() throws Exception {
+        // when & then
+        mockMvc.perform(post("/api/enrollments/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}," +
+                                "{\"studentId\":" + studentId + ",\"courseId\":" + (courseId + 1000) + "}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("ENROLLED"))
+                .andExpect(jsonPath("$[0].enrollmentId").isNumber())
+                .andExpect(jsonPath("$[1].status").value("COURSE_NOT_FOUND"));
+        mockMvc.perform(post("/api/enrollments/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"studentId\":" + studentId + "}]"))
+                .andExpect(status().isBadRequest());
+        assertThat(enrollmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeleteEnrollmentsOfCourse() throws Exception {
+        // given
+        enroll(studentId, courseId).andExpect(status().isCreated());
+
+        // when & then
+        mockMvc.perform(delete("/api/enrollments").param("courseId", courseId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(1));
+        mockMvc.perform(delete("/api/enrollments"))
+                .andExpect(status().isBadRequest());
+        assertThat(enrollmentRepository.count()).isZero();
+    }
+
+    @Test
+    void testGradeEnrollment() throws Exception {
+        // given
+        enroll(studentId, courseId).andExpect(status().isCreated());
+        Long id = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId).orElseThrow().getId();
+
+        // when & then
+        mockMvc.perform(put("/api/enrollments/{id}/grade", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"grade\":87.5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.grade").value(87.5));
+        mockMvc.perform(put("/api/enrollments/{id}/grade", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"grade\":101}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/enrollments/{id}/grade", id + 1000).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"grade\":50}"))
+                .andExpect(status().isNotFound());
+        assertThat(enrollmentRepository.findById(id).orElseThrow().getGrade()).isEqualTo(87.5);
+    }
+}
@@ -0,0 +1,98 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.InstructorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+@AutoConfigureMockMvc
+class InstructorRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAll();
+        instructorRepository.deleteAll();
+    }
+
+    private Instructor saveInstructor(String firstName, String lastName, String department) {
+        return instructorRepository.save(Instructor.builder().firstName(firstName).lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@uni.de").department(department)
+                .biography("Lange Biographie, die keine Liste braucht").build());
+    }
+
+    @Test
+    void testListAndGetReturnDtosWithoutLoadingEntities() throws Exception {
+        // given
+        Instructor erika = saveInstructor("Erika", "Musterfrau", "Mathematik");
+        saveInstructor("Max", "Mustermann", "Informatik");
+        saveInstructor("Hans", "Schmidt", "Physik");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when & then
+        mockMvc.perform(get("/api/instructors").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].lastName", contains("Musterfrau", "Mustermann")))
+                .andExpect(jsonPath("$.content[0].biography").doesNotExist())
+                .andExpect(jsonPath("$.page.totalElements").value(3));
+        mockMvc.perform(get("/api/instructors/{id}", erika.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("erika.musterfrau@uni.de"))
+                .andExpect(jsonPath("$.department").value("Mathematik"));
+        mockMvc.perform(get("/api/instructors/{id}", -1))
+                .andExpect(status().isNotFound());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testSearchAndCoursesOfInstructor() throws Exception {
+        // given
+        Instructor erika = saveInstructor("Erika", "Musterfrau", "Mathematik");
+        Instructor julia = saveInstructor("Julia", "Berger", "Chemie");
+        courseRepository.save(Course.builder().name("Analysis").description("Grundlagen der Analysis")
+                .instructorId(erika.getId()).build());
+        courseRepository.save(Course.builder().name("Algebra").description("Grundlagen der Algebra")
+                .instructorId(erika.getId()).build());
+
+        // when & then
+        mockMvc.perform(get("/api/instructors/search").param("q", "mathe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", contains(erika.getId().intValue())));
+        mockMvc.perform(get("/api/instructors/search").param("q", "berger@uni"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", contains(julia.getId().intValue())));
+        mockMvc.perform(get("/api/instructors/{id}/courses", erika.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("Analysis", "Algebra")));
+        mockMvc.perform(get("/api/instructors/{id}/courses", -1))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,101 @@
+package at.spengergasse.onlinecourseplatform.presentation;
+
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+@AutoConfigureMockMvc
+class StudentRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    private Student saveStudent(String firstName, String lastName, LocalDate registrationDate) {
+        return studentRepository.save(Student.builder().firstName(firstName).lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@student.uni.de")
+                .dateOfBirth(LocalDate.of(2000, 1, 1)).registrationDate(registrationDate).build());
+    }
+
+    @Test
+    void testEndpointsReturnDtosWithoutLoadingEntities() throws Exception {
+        // given
+        Student anna = saveStudent("Anna", "Huber", LocalDate.of(2024, 9, 1));
+        Student lena = saveStudent("Lena", "Gruber", LocalDate.of(2025, 2, 1));
+        saveStudent("Paul", "Wagner", LocalDate.of(2025, 9, 1));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when & then
+        mockMvc.perform(get("/api/students").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].lastName", contains("Huber", "Gruber")))
+                .andExpect(jsonPath("$.content[0].email").doesNotExist())
+                .andExpect(jsonPath("$.page.totalElements").value(3));
+        mockMvc.perform(get("/api/students").param("registeredTo", "2025-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", contains(anna.getId().intValue(), lena.getId().intValue())));
+        mockMvc.perform(get("/api/students/search").param("q", "grub"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].firstName", contains("Lena")));
+        mockMvc.perform(get("/api/students/{id}", anna.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("anna.huber@student.uni.de"));
+        mockMvc.perform(get("/api/students/{id}", -1))
+                .andExpect(status().isNotFound());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    @Test
+    void testStreamStudents() throws Exception {
+        // given
+        Student anna = saveStudent("Anna", "Huber", LocalDate.of(2024, 9, 1));
+        Student lena = saveStudent("Lena", "Gruber", LocalDate.of(2025, 2, 1));
+
+        // when
+        MvcResult ndjson = mockMvc.perform(get("/api/students/stream").accept("application/x-ndjson")).andReturn();
+        MvcResult array = mockMvc.perform(get("/api/students/stream").accept("application/json")).andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":" + anna.getId() + ",\"firstName\":\"Anna\",\"lastName\":\"Huber\",\"email\":\"anna.huber@student.uni.de\"}\n" +
+                        "{\"id\":" + lena.getId() + ",\"firstName\":\"Lena\",\"lastName\":\"Gruber\",\"email\":\"lena.gruber@student.uni.de\"}\n"));
+        mockMvc.perform(asyncDispatch(array))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", contains("Anna", "Lena")));
+    }
+}
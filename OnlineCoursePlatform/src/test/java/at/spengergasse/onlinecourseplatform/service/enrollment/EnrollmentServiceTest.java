@@ -0,0 +1,268 @@
+package at.spengergasse.onlinecourseplatform.service.enrollment;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.OptimisticRetry;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.BulkResult;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.BulkStatus;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.Enroll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+@RecordApplicationEvents
+class EnrollmentServiceTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private List<Long> saveStudents(int count) {
+        return studentRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> Student.builder().firstName("Bulk").lastName("Student")
+                        .email("bulk" + i + "@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build())
+                .toList()).stream().map(Student::getId).toList();
+    }
+
+    private Long saveCourse(String name) {
+        return courseRepository.save(Course.builder().name(name).description("Course for bulk enrollments")
+                .build()).getId();
+    }
+
+    @Test
+    void testEnrollAllReportsEveryPair() {
+        // given
+        List<Long> students = saveStudents(3);
+        Long course = saveCourse("Databases");
+        Enrollment existing = enrollmentRepository.save(
+                Enrollment.builder().studentId(students.get(1)).courseId(course).grade(80.0).build());
+        long unknown = students.get(2) + 1000;
+
+        // when
+        List<BulkResult> results = enrollmentService.enrollAll(List.of(
+                new Enroll(students.get(0), course),
+                new Enroll(students.get(1), course),
+                new Enroll(unknown, course),
+                new Enroll(students.get(2), course + 1000),
+                new Enroll(students.get(0), course)));
+
+        // then
+        assertThat(results).extracting(BulkResult::status).containsExactly(BulkStatus.ENROLLED,
+                BulkStatus.ALREADY_ENROLLED, BulkStatus.STUDENT_NOT_FOUND, BulkStatus.COURSE_NOT_FOUND,
+                BulkStatus.ALREADY_ENROLLED);
+        Long enrolledId = results.get(0).enrollmentId();
+        assertThat(results).extracting(BulkResult::enrollmentId)
+                .containsExactly(enrolledId, existing.getId(), null, null, enrolledId);
+        Enrollment enrolled = enrollmentRepository.findById(enrolledId).orElseThrow();
+        assertThat(enrolled.getStudentId()).isEqualTo(students.get(0));
+        assertThat(enrolled.getGrade()).isNull();
+        assertThat(enrolled.getVersion()).isZero();
+        assertThat(enrollmentRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void testEnrollAllPublishesTheChangedCoursesAndStudents() {
+        // given
+        List<Long> students = saveStudents(3);
+        Long databases = saveCourse("Databases");
+        Long networks = saveCourse("Networks");
+
+        // when
+        enrollmentService.enrollAll(List.of(new Enroll(students.get(0), databases),
+                new Enroll(students.get(1), networks)));
+
+        // then
+        assertThat(events.stream(EnrollmentsChangedEvent.class)).containsExactly(new EnrollmentsChangedEvent(
+                EntityChangedEvent.ChangeType.INSERTED, Set.of(databases, networks),
+                Set.of(students.get(0), students.get(1))));
+        assertThat(events.stream(TableChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void testEnrollAllInsertsACohortInBatches() {
+        // given
+        List<Long> students = saveStudents(2500);
+        Long databases = saveCourse("Databases");
+        Long networks = saveCourse("Networks");
+        List<Enroll> pairs = new ArrayList<>();
+        students.forEach(student -> pairs.add(new Enroll(student, databases)));
+        students.forEach(student -> pairs.add(new Enroll(student, networks)));
+        // Counted once before the bulk enrollment, the cached count has to be evicted
+        assertThat(enrollmentRepository.countByCourseId(databases)).isZero();
+
+        // when
+        List<BulkResult> results = enrollmentService.enrollAll(pairs);
+        List<BulkResult> again = enrollmentService.enrollAll(pairs);
+
+        // then
+        assertThat(results).extracting(BulkResult::status).containsOnly(BulkStatus.ENROLLED);
+        assertThat(results).extracting(BulkResult::enrollmentId).doesNotHaveDuplicates();
+        assertThat(again).extracting(BulkResult::status).containsOnly(BulkStatus.ALREADY_ENROLLED);
+        assertThat(again).extracting(BulkResult::enrollmentId)
+                .containsExactlyElementsOf(results.stream().map(BulkResult::enrollmentId).toList());
+        assertThat(enrollmentRepository.countByCourseId(databases)).isEqualTo(2500);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments", Long.class)).isEqualTo(5000);
+        // Hibernate continues behind the reserved block
+        Enrollment next = enrollmentRepository.save(Enrollment.builder().studentId(students.get(0))
+                .courseId(saveCourse("Compilers")).build());
+        assertThat(next.getId()).isNotIn(results.stream().map(BulkResult::enrollmentId).toList());
+    }
+
+    @Test
+    void testDeleteByCourseInIdRanges() {
+        // given
+        List<Long> students = saveStudents(2100);
+        Long databases = saveCourse("Databases");
+        Long networks = saveCourse("Networks");
+        enrollmentService.enrollAll(students.stream().map(student -> new Enroll(student, databases)).toList());
+        enrollmentService.enrollAll(List.of(new Enroll(students.get(0), networks)));
+        assertThat(enrollmentRepository.countByCourseId(databases)).isEqualTo(2100);
+
+        // when
+        long deleted = enrollmentService.deleteByCourse(databases);
+        long none = enrollmentService.deleteByCourse(databases);
+
+        // then
+        assertThat(deleted).isEqualTo(2100);
+        assertThat(none).isZero();
+        assertThat(enrollmentRepository.countByCourseId(databases)).isZero();
+        assertThat(enrollmentRepository.countByCourseId(networks)).isEqualTo(1);
+        assertThat(enrollmentService.deleteByStudent(students.get(0))).isEqualTo(1);
+        assertThat(enrollmentRepository.count()).isZero();
+        // One event per committed range
+        List<EnrollmentsChangedEvent> deletes = events.stream(EnrollmentsChangedEvent.class)
+                .filter(event -> event.type() == EntityChangedEvent.ChangeType.DELETED).toList();
+        assertThat(deletes).hasSize(4);
+        assertThat(deletes.subList(0, 3)).allMatch(event -> event.courseIds().equals(Set.of(databases)));
+        assertThat(deletes.subList(0, 3)).flatExtracting(EnrollmentsChangedEvent::studentIds)
+                .containsExactlyInAnyOrderElementsOf(students);
+        assertThat(deletes.getLast()).isEqualTo(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.DELETED,
+                Set.of(networks), Set.of(students.get(0))));
+    }
+
+    @Test
+    void testEnrollAllRejectsInvalidRequests() {
+        // when & then
+        assertThatThrownBy(() -> enrollmentService.enrollAll(List.of(new Enroll(1L, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> enrollmentService.enrollAll(IntStream.rangeClosed(0, EnrollmentService.MAX_BULK_PAIRS)
+                .mapToObj(i -> new Enroll((long) i, 1L)).toList()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGradeIsRetriedAfterAConcurrentEdit() {
+        // given
+        Long student = saveStudents(1).getFirst();
+        Enrollment enrollment = enrollmentRepository.save(
+                Enrollment.builder().studentId(student).courseId(saveCourse("Databases")).grade(50.0).build());
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        optimisticRetry.call(() -> transactionTemplate.execute(status -> {
+            Enrollment loaded = enrollmentRepository.findById(enrollment.getId()).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                // Another writer commits a new version on its own connection after this attempt read the row
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                        "UPDATE enrollments SET grade = 60, version = version + 1 WHERE id = ?",
+                        enrollment.getId())).join();
+            }
+            loaded.setGrade(loaded.getGrade() + 5);
+            return loaded;
+        }));
+
+        // then
+        Enrollment reloaded = enrollmentRepository.findById(enrollment.getId()).orElseThrow();
+        assertThat(attempts).hasValue(2);
+        assertThat(reloaded.getGrade()).isEqualTo(65.0);
+        assertThat(reloaded.getVersion()).isEqualTo(enrollment.getVersion() + 2);
+    }
+
+    @Test
+    void testGradeOfUnknownEnrollment() {
+        // when & then
+        assertThatThrownBy(() -> enrollmentService.grade(-1L, 80.0))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void testConcurrentEnrollmentOfTheSamePairIsADuplicate() throws Exception {
+        // given
+        Long studentId = saveStudents(1).getFirst();
+        Long courseId = saveCourse("Concurrency");
+        CountDownLatch inserted = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    enrollmentRepository.saveAndFlush(Enrollment.builder().studentId(studentId).courseId(courseId)
+                            .build());
+                    inserted.countDown();
+                    try {
+                        // Commit only once the second enrollment passed its existence check
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        inserted.await();
+
+        // when & then
+        assertThatThrownBy(() -> enrollmentService.enroll(studentId, courseId))
+                .isInstanceOf(DuplicateKeyException.class);
+        first.get();
+        assertThat(enrollmentRepository.count()).isEqualTo(1);
+    }
+}
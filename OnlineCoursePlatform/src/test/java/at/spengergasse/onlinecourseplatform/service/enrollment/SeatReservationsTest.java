@@ -0,0 +1,264 @@
+package at.spengergasse.onlinecourseplatform.service.enrollment;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.BulkResult;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.BulkStatus;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos.Enroll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class SeatReservationsTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private SeatReservations seatReservations;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private List<Long> saveStudents(int count) {
+        return studentRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> Student.builder().firstName("Seat").lastName("Student")
+                        .email("seat" + i + "@student.uni.de").dateOfBirth(LocalDate.of(2000, 1, 1)).build())
+                .toList()).stream().map(Student::getId).toList();
+    }
+
+    private Course saveCourse(Integer capacity) {
+        return courseRepository.save(Course.builder().name("Databases").description("Relational databases and SQL")
+                .capacity(capacity).build());
+    }
+
+    private int stripes(long courseId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_seats WHERE course_id = ?", Integer.class,
+                courseId);
+    }
+
+    private int sum(String column, long courseId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(" + column + "), 0) FROM course_seats" +
+                " WHERE course_id = ?", Integer.class, courseId);
+    }
+
+    @Test
+    void testConcurrentEnrollmentsNeverOversell() throws Exception {
+        // given
+        List<Long> students = saveStudents(60);
+        Long courseId = saveCourse(20).getId();
+        List<Future<?>> enrollments = new ArrayList<>();
+
+        // when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long studentId : students) {
+                enrollments.add(executor.submit(() -> enrollmentService.enroll(studentId, courseId)));
+            }
+        }
+
+        // then
+        int enrolled = 0;
+        for (Future<?> enrollment : enrollments) {
+            if (enrollment.state() == Future.State.SUCCESS) {
+                enrolled++;
+            } else {
+                assertThat(enrollment.exceptionNow()).isInstanceOf(EnrollmentConflictException.class)
+                        .hasMessage("Course " + courseId + " is full");
+            }
+        }
+        assertThat(enrolled).isEqualTo(20);
+        assertThat(enrollmentRepository.countByCourseId(courseId)).isEqualTo(20);
+        assertThat(sum("taken", courseId)).isEqualTo(20);
+    }
+
+    @Test
+    void testConcurrentEnrollmentsWithoutStripesNeverOversell() throws Exception {
+        // given
+        List<Long> students = saveStudents(20);
+        Long courseId = saveCourse(5).getId();
+        jdbcTemplate.update("DELETE FROM course_seats WHERE course_id = ?", courseId);
+        List<Future<?>> enrollments = new ArrayList<>();
+
+        // when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long studentId : students) {
+                enrollments.add(executor.submit(() -> enrollmentService.enroll(studentId, courseId)));
+            }
+        }
+
+        // then
+        assertThat(enrollments).filteredOn(enrollment -> enrollment.state() == Future.State.SUCCESS).hasSize(5);
+        assertThat(enrollmentRepository.countByCourseId(courseId)).isEqualTo(5);
+    }
+
+    @Test
+    void testStripesFollowTheCapacity() {
+        // given
+        Course course = saveCourse(20);
+        assertThat(stripes(course.getId())).isEqualTo(SeatReservations.STRIPES);
+        assertThat(sum("seats", course.getId())).isEqualTo(20);
+
+        // when
+        course.setCapacity(3);
+        course = courseRepository.save(course);
+
+        // then
+        assertThat(stripes(course.getId())).isEqualTo(3);
+        assertThat(sum("seats", course.getId())).isEqualTo(3);
+
+        // when
+        course.setCapacity(null);
+        courseRepository.save(course);
+
+        // then
+        assertThat(stripes(course.getId())).isZero();
+    }
+
+    @Test
+    void testStripesAreDeletedWithTheirCourse() {
+        // given
+        Long courseId = saveCourse(20).getId();
+
+        // when
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", courseId);
+
+        // then
+        assertThat(stripes(courseId)).isZero();
+    }
+
+    @Test
+    void testDeletedEnrollmentGivesItsSeatBack() {
+        // given
+        List<Long> students = saveStudents(2);
+        Long courseId = saveCourse(1).getId();
+        Long enrollmentId = enrollmentService.enroll(students.get(0), courseId).id();
+        assertThatThrownBy(() -> enrollmentService.enroll(students.get(1), courseId))
+                .isInstanceOf(EnrollmentConflictException.class);
+
+        // when
+        enrollmentRepository.deleteById(enrollmentId);
+
+        // then
+        assertThat(sum("taken", courseId)).isZero();
+        assertThat(enrollmentService.enroll(students.get(1), courseId).courseId()).isEqualTo(courseId);
+    }
+
+    @Test
+    void testBulkEnrollmentFillsTheCourse() {
+        // given
+        List<Long> students = saveStudents(3);
+        Long courseId = saveCourse(2).getId();
+        Long unlimitedId = saveCourse(null).getId();
+
+        // when
+        List<BulkResult> results = enrollmentService.enrollAll(List.of(
+                new Enroll(students.get(0), courseId),
+                new Enroll(students.get(1), courseId),
+                new Enroll(students.get(2), courseId),
+                new Enroll(students.get(2), unlimitedId)));
+
+        // then
+        assertThat(results).extracting(BulkResult::status).containsExactly(BulkStatus.ENROLLED,
+                BulkStatus.ENROLLED, BulkStatus.COURSE_FULL, BulkStatus.ENROLLED);
+        assertThat(sum("taken", courseId)).isEqualTo(2);
+
+        // when
+        enrollmentService.deleteByCourse(courseId);
+
+        // then
+        assertThat(sum("taken", courseId)).isZero();
+    }
+
+    @Test
+    void testRepositoryBulkDeleteGivesTheSeatsBack() {
+        // given
+        List<Long> students = saveStudents(2);
+        Long courseId = saveCourse(2).getId();
+        students.forEach(studentId -> enrollmentService.enroll(studentId, courseId));
+        assertThat(sum("taken", courseId)).isEqualTo(2);
+
+        // when
+        int deleted = enrollmentRepository.deleteByStudentId(students.get(0));
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(sum("taken", courseId)).isEqualTo(1);
+    }
+
+    @Test
+    void testBulkChangesReconcileOnlyDeletedCourses() {
+        // given
+        List<Long> students = saveStudents(2);
+        Long deletedFrom = saveCourse(10).getId();
+        Long graded = saveCourse(10).getId();
+        students.forEach(studentId -> enrollmentService.enroll(studentId, deletedFrom));
+        students.forEach(studentId -> enrollmentService.enroll(studentId, graded));
+        jdbcTemplate.update("UPDATE course_seats SET taken = seats");
+
+        // when
+        eventPublisher.publishEvent(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.DELETED,
+                Set.of(deletedFrom), Set.copyOf(students)));
+        eventPublisher.publishEvent(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.UPDATED,
+                Set.of(graded), Set.copyOf(students)));
+
+        // then
+        assertThat(sum("taken", deletedFrom)).isEqualTo(2);
+        assertThat(sum("taken", graded)).isEqualTo(10);
+    }
+
+    @Test
+    void testReconcileRepairsDrift() {
+        // given
+        List<Long> students = saveStudents(3);
+        Long courseId = saveCourse(10).getId();
+        students.forEach(studentId -> enrollmentService.enroll(studentId, courseId));
+        jdbcTemplate.update("UPDATE course_seats SET taken = seats WHERE course_id = ?", courseId);
+
+        // when
+        seatReservations.reconcileAll();
+
+        // then
+        assertThat(sum("taken", courseId)).isEqualTo(3);
+        assertThat(sum("seats", courseId)).isEqualTo(10);
+    }
+}
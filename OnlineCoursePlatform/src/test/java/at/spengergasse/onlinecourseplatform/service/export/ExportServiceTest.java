@@ -0,0 +1,98 @@
+package at.spengergasse.onlinecourseplatform.service.export;
+
+import at.spengergasse.onlinecourseplatform.config.seeding.CsvBulkLoader;
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CsvBulkLoader bulkLoader;
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private Long saveStudent(String email) {
+        return studentRepository.save(Student.builder().firstName("Anna").lastName("Huber").email(email)
+                .dateOfBirth(LocalDate.of(2000, 1, 1)).build()).getId();
+    }
+
+    @Test
+    void testExportEnrollments() {
+        // given
+        Long first = saveStudent("first@student.uni.de");
+        Long second = saveStudent("second@student.uni.de");
+        Long course = courseRepository.save(Course.builder().name("Databases")
+                .description("Relational databases and SQL").build()).getId();
+        Enrollment graded = enrollmentRepository.save(
+                Enrollment.builder().studentId(first).courseId(course).grade(87.5).build());
+        Enrollment ungraded = enrollmentRepository.save(Enrollment.builder().studentId(second).courseId(course).build());
+        StringWriter out = new StringWriter();
+
+        // when
+        long rows = exportService.exportEnrollments(out);
+
+        // then
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString().lines()).containsExactly(
+                "id,student_id,course_id,grade",
+                graded.getId() + "," + first + "," + course + ",87.5",
+                ungraded.getId() + "," + second + "," + course + ",NULL");
+    }
+
+    @Test
+    void testExportedStudentsCanBeImportedAgain() throws Exception {
+        // given
+        studentRepository.save(Student.builder()
+                .firstName("Anna")
+                .lastName("O\"Brien, Jr.")
+                .email("anna@example.com")
+                .dateOfBirth(LocalDate.of(2001, 2, 3))
+                .build());
+        List<Student> before = studentRepository.findAll();
+        StringWriter out = new StringWriter();
+        exportService.exportStudents(out);
+        studentRepository.deleteAll();
+
+        // when
+        bulkLoader.importCsv("students", new ByteArrayInputStream(out.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertThat(studentRepository.findAll())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(before);
+    }
+}
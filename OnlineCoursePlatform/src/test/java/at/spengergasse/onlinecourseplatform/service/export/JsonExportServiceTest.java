@@ -0,0 +1,150 @@
+package at.spengergasse.onlinecourseplatform.service.export;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Student;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.presentation.api.dtos.EnrollmentDtos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class JsonExportServiceTest {
+
+    @Autowired
+    private JsonExportService jsonExportService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long anna;
+    private long ben;
+    private long databases;
+    private long networks;
+
+    @BeforeEach
+    void setUp() {
+        anna = saveStudent("anna@student.uni.de");
+        ben = saveStudent("ben@student.uni.de");
+        databases = saveCourse("Databases");
+        networks = saveCourse("Networks");
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        courseRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    private long saveStudent(String email) {
+        return studentRepository.save(Student.builder().firstName("Anna").lastName("Huber").email(email)
+                .dateOfBirth(LocalDate.of(2000, 1, 1)).build()).getId();
+    }
+
+    private long saveCourse(String name) {
+        return courseRepository.save(Course.builder().name(name).description("Course of the export tests")
+                .build()).getId();
+    }
+
+    private Enrollment saveEnrollment(long studentId, long courseId, Double grade) {
+        return enrollmentRepository.save(Enrollment.builder().studentId(studentId).courseId(courseId).grade(grade).build());
+    }
+
+    @Test
+    void testStreamEnrollmentsAsNdjson() {
+        // given
+        Enrollment graded = saveEnrollment(anna, databases, 87.5);
+        Enrollment ungraded = saveEnrollment(ben, databases, null);
+        saveEnrollment(anna, networks, 60.0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long rows = jsonExportService.streamEnrollments(databases, null,
+                new JsonStreamWriter(out, objectMapper, JsonStreamFormat.NDJSON));
+
+        // then
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly(
+                "{\"id\":" + graded.getId() + ",\"studentId\":" + anna + ",\"courseId\":" + databases +
+                        ",\"grade\":87.5}",
+                "{\"id\":" + ungraded.getId() + ",\"studentId\":" + ben + ",\"courseId\":" + databases +
+                        ",\"grade\":null}");
+    }
+
+    @Test
+    void testStreamEnrollmentsAsArray() throws IOException {
+        // given
+        saveEnrollment(anna, databases, 87.5);
+        saveEnrollment(anna, networks, 60.0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        jsonExportService.streamEnrollments(null, anna, new JsonStreamWriter(out, objectMapper, JsonStreamFormat.ARRAY));
+
+        // then
+        assertThat(objectMapper.readTree(out.toByteArray()).findValuesAsText("courseId"))
+                .containsExactly(String.valueOf(databases), String.valueOf(networks));
+    }
+
+    @Test
+    void testFailingClientStopsTheStream() {
+        // given
+        saveEnrollment(anna, databases, 87.5);
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // when & then
+        assertThatThrownBy(() -> jsonExportService.streamEnrollments(null, null,
+                new JsonStreamWriter(disconnected, objectMapper, JsonStreamFormat.NDJSON)))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void testOnlyFinishedArraysAreComplete() throws IOException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonStreamWriter writer = new JsonStreamWriter(out, objectMapper, JsonStreamFormat.ARRAY);
+
+        // when
+        writer.write(new EnrollmentDtos.Dto(1L, anna, databases, 87.5));
+
+        // then
+        assertThatThrownBy(() -> objectMapper.readTree(out.toByteArray())).isInstanceOf(IOException.class);
+
+        // when
+        writer.finish();
+
+        // then
+        assertThat(objectMapper.readTree(out.toByteArray()).size()).isEqualTo(1);
+    }
+}
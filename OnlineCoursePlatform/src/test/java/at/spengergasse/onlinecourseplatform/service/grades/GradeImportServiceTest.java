@@ -0,0 +1,173 @@
+package at.spengergasse.onlinecourseplatform.service.grades;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentParents;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import at.spengergasse.onlinecourseplatform.service.stats.GradeStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+@RecordApplicationEvents
+class GradeImportServiceTest {
+
+    @Autowired
+    private GradeImportService gradeImportService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private GradeStatistics gradeStatistics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private EnrollmentParents parents;
+
+    @BeforeEach
+    void setUp() {
+        parents = new EnrollmentParents(studentRepository, courseRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        parents.deleteAll();
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Enrollment saveEnrollment(long student, long course, Double grade) {
+        return enrollmentRepository.save(Enrollment.builder().studentId(parents.student(student))
+                .courseId(parents.course(course)).grade(grade).build());
+    }
+
+    @Test
+    void testImportGradesWithRejectReport() throws IOException {
+        // given
+        Enrollment graded = saveEnrollment(1L, 10L, 50.0);
+        Enrollment ungraded = saveEnrollment(2L, 10L, null);
+        saveEnrollment(3L, 10L, 70.0);
+        long course = parents.course(10);
+        long unenrolled = parents.student(4);
+        double updatedBefore = meterRegistry.counter("grades.import.records", "outcome", "updated").count();
+
+        // when
+        GradeImportResult result = gradeImportService.importGrades(csv("""
+                student_id,course_id,grade
+                %1$d,%5$d,91.5
+                %2$d,%5$d,"78"
+                %3$d,%5$d,120
+                %4$d,%5$d,60
+                x,%5$d,60
+
+                %3$d,%5$d,NULL
+                """.formatted(graded.getStudentId(), ungraded.getStudentId(), parents.student(3), unenrolled,
+                course)));
+
+        // then
+        assertThat(result.records()).isEqualTo(6);
+        assertThat(result.updated()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.rejects()).extracting(GradeImportResult.Reject::line).containsExactly(4L, 5L, 6L);
+        assertThat(result.rejects().get(0).reason()).isEqualTo("Grade must not exceed 100.0");
+        assertThat(result.rejects().get(1).reason()).isEqualTo("Student " + unenrolled + " is not enrolled in course " + course);
+        assertThat(result.rejects().get(2).reason()).startsWith("Not a number");
+
+        Enrollment reloaded = enrollmentRepository.findById(graded.getId()).orElseThrow();
+        assertThat(reloaded.getGrade()).isEqualTo(91.5);
+        assertThat(reloaded.getVersion()).isEqualTo(graded.getVersion() + 1);
+        assertThat(enrollmentRepository.findById(ungraded.getId()).orElseThrow().getGrade()).isEqualTo(78.0);
+        assertThat(enrollmentRepository.findByStudentIdAndCourseId(parents.student(3), course).orElseThrow().getGrade()).isNull();
+        assertThat(gradeStatistics.ofCourse(course).average()).isEqualTo((91.5 + 78.0) / 2);
+        assertThat(meterRegistry.counter("grades.import.records", "outcome", "updated").count())
+                .isEqualTo(updatedBefore + 3);
+        assertThat(events.stream(EnrollmentsChangedEvent.class)).containsExactly(new EnrollmentsChangedEvent(
+                EntityChangedEvent.ChangeType.UPDATED, Set.of(course),
+                Set.of(graded.getStudentId(), ungraded.getStudentId(), parents.student(3))));
+        assertThat(events.stream(TableChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void testStaleEntityFailsAfterImport() throws IOException {
+        // given
+        Enrollment stale = saveEnrollment(1L, 10L, 50.0);
+
+        // when
+        gradeImportService.importGrades(csv("course_id,student_id,grade\n" + stale.getCourseId() + "," + stale.getStudentId() + ",88\n"));
+        stale.setGrade(40.0);
+
+        // then
+        assertThatThrownBy(() -> enrollmentRepository.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(enrollmentRepository.findById(stale.getId()).orElseThrow().getGrade()).isEqualTo(88.0);
+    }
+
+    @Test
+    void testImportGradesInBatches() throws IOException {
+        // given
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (long student = 1; student <= 2500; student++) {
+            enrollments.add(Enrollment.builder().studentId(parents.student(student)).courseId(parents.course(20))
+                    .build());
+        }
+        enrollmentRepository.saveAll(enrollments);
+        StringBuilder file = new StringBuilder("studentId,courseId,grade\n");
+        for (long student = 1; student <= 2500; student++) {
+            file.append(parents.student(student)).append(',').append(parents.course(20)).append(',')
+                    .append(student % 101).append('\n');
+        }
+
+        // when
+        GradeImportResult result = gradeImportService.importGrades(csv(file.toString()));
+
+        // then
+        assertThat(result.updated()).isEqualTo(2500);
+        assertThat(result.rejects()).isEmpty();
+        assertThat(result.recordsPerSecond()).isPositive();
+        assertThat(enrollmentRepository.findByStudentIdAndCourseId(parents.student(2500), parents.course(20)).orElseThrow().getGrade())
+                .isEqualTo(2500 % 101);
+    }
+
+    @Test
+    void testRejectsUnknownHeader() {
+        // when & then
+        assertThatThrownBy(() -> gradeImportService.importGrades(csv("id,grade\n1,50\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package at.spengergasse.onlinecourseplatform.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseSearchIndexTest {
+
+    private CourseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseSearchIndex(null, null);
+        index.put(1, "Datenbanken 1", "Einführung in Datenbanken mit praktischen Übungen");
+        index.put(2, "Algorithmen 2", "Sortieren, Suchen und Graphen; Datenbanken werden gestreift");
+        index.put(3, "Künstliche Intelligenz 3", "Einführung in neuronale Netze und Datenbanken-Anbindung");
+        index.put(4, "Webentwicklung 4", "HTML, CSS und JavaScript in Projektarbeit");
+    }
+
+    @Test
+    void testNameMatchesRankBeforeDescriptionMatches() {
+        // when
+        Page<SearchHit> hits = index.search("datenbanken", Pageable.unpaged());
+
+        // then
+        assertThat(hits.getTotalElements()).isEqualTo(3);
+        assertThat(hits.getContent().get(0).id()).isEqualTo(1L);
+    }
+
+    @Test
+    void testPrefixAndAccentInsensitiveMatch() {
+        // when & then
+        assertThat(index.search("kunst", Pageable.unpaged()).map(SearchHit::id)).containsExactly(3L);
+        assertThat(index.search("WEBENT", Pageable.unpaged()).map(SearchHit::id)).containsExactly(4L);
+    }
+
+    @Test
+    void testAllTermsMustMatch() {
+        // when & then
+        assertThat(index.search("einführung daten", Pageable.unpaged()).map(SearchHit::id))
+                .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("einführung html", Pageable.unpaged())).isEmpty();
+        assertThat(index.search(" ,; ", Pageable.unpaged())).isEmpty();
+    }
+
+    @Test
+    void testPagination() {
+        // given
+        Page<SearchHit> all = index.search("daten", Pageable.unpaged());
+
+        // when
+        Page<SearchHit> first = index.search("daten", PageRequest.of(0, 2));
+        Page<SearchHit> second = index.search("daten", PageRequest.of(1, 2));
+        Page<SearchHit> beyond = index.search("daten", PageRequest.of(5, 2));
+
+        // then
+        assertThat(first.getContent()).containsExactlyElementsOf(all.getContent().subList(0, 2));
+        assertThat(second.getContent()).containsExactlyElementsOf(all.getContent().subList(2, 3));
+        assertThat(second.getTotalElements()).isEqualTo(3);
+        assertThat(beyond.getContent()).isEmpty();
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDeletes() {
+        // when
+        index.put(4, "Webentwicklung 4", "Datenbanken im Web");
+        index.remove(1);
+
+        // then
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("datenbanken", Pageable.unpaged()).map(SearchHit::id))
+                .containsExactlyInAnyOrder(2L, 3L, 4L);
+        assertThat(index.search("javascript", Pageable.unpaged())).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package at.spengergasse.onlinecourseplatform.service.search;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class CourseSearchServiceTest {
+
+    @Autowired
+    private CourseSearchService courseSearchService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAll();
+    }
+
+    private Course saveCourse(String name, String description) {
+        return courseRepository.save(Course.builder().name(name).description(description).instructorId(1L).build());
+    }
+
+    @Test
+    void testSearchFollowsCourseWrites() {
+        // given
+        Course course = saveCourse("Thermodynamik", "Wärmelehre mit praktischen Übungen");
+        saveCourse("Statistik", "Wahrscheinlichkeit und Wärmelehre im Vergleich");
+
+        // when
+        course.setName("Organische Chemie");
+        Course updated = courseRepository.save(course);
+
+        // then
+        assertThat(courseSearchService.search("thermo", PageRequest.of(0, 10))).isEmpty();
+        assertThat(courseSearchService.search("organ", PageRequest.of(0, 10)).getContent())
+                .extracting(Course::getId).containsExactly(updated.getId());
+        assertThat(courseSearchService.search("wärme", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+
+        // when
+        courseRepository.delete(updated);
+
+        // then
+        assertThat(courseSearchService.search("organ", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void testTableChangesRebuildTheIndexInTheBackground() {
+        // given
+        Course course = saveCourse("Thermodynamik", "Wärmelehre mit praktischen Übungen");
+        jdbcTemplate.update("UPDATE courses SET name = 'Organische Chemie' WHERE id = ?", course.getId());
+
+        // when
+        eventPublisher.publishEvent(new TableChangedEvent("courses"));
+
+        // then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(courseSearchService.search("organ", PageRequest.of(0, 10)).getContent())
+                        .extracting(Course::getId).containsExactly(course.getId()));
+        assertThat(courseSearchService.search("thermo", PageRequest.of(0, 10))).isEmpty();
+    }
+}
@@ -0,0 +1,177 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import at.spengergasse.onlinecourseplatform.domain.Course;
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.domain.Instructor;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentParents;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.InstructorRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class GradeAnalyticsServiceTest {
+
+    @Autowired
+    private GradeAnalyticsService analyticsService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private EnrollmentParents parents;
+
+    @BeforeEach
+    void setUp() {
+        parents = new EnrollmentParents(studentRepository, courseRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        parents.deleteAll();
+        courseRepository.deleteAll();
+        instructorRepository.deleteAll();
+    }
+
+    private Course saveCourse(String name, Instructor instructor) {
+        return courseRepository.save(Course.builder().name(name).description("Grundlagen und Übungen")
+                .instructorId(instructor.getId()).build());
+    }
+
+    private void enroll(long student, Course course, Double grade) {
+        enrollmentRepository.save(Enrollment.builder().studentId(parents.student(student)).courseId(course.getId())
+                .grade(grade).build());
+    }
+
+    @Test
+    void testDistributionsOfCoursesAndDepartments() {
+        // given
+        Instructor instructor = instructorRepository.save(Instructor.builder().firstName("Erika").lastName("Musterfrau")
+                .email("erika.musterfrau@uni.de").department("Mathematik").build());
+        Course analysis = saveCourse("Analysis", instructor);
+        Course algebra = saveCourse("Algebra", instructor);
+        enroll(1L, analysis, 55.0);
+        enroll(2L, analysis, 90.0);
+        enroll(3L, analysis, 72.3);
+        enroll(4L, analysis, null);
+        enroll(1L, algebra, 90.0);
+
+        // when
+        GradeDistribution course = analyticsService.ofCourse(analysis.getId());
+        GradeDistribution department = analyticsService.ofDepartment("mathematik");
+
+        // then
+        assertThat(course.count()).isEqualTo(3);
+        assertThat(course.median()).isEqualTo(72.0);
+        assertThat(course.p90()).isEqualTo(90.0);
+        assertThat(course.histogram()).extracting(GradeHistogram.Bucket::from).containsExactly(55.0, 72.0, 90.0);
+        assertThat(department.count()).isEqualTo(4);
+        assertThat(analyticsService.byDepartment()).containsOnlyKeys("Mathematik");
+        assertThat(analyticsService.topStudents(analysis.getId(), 2))
+                .containsExactly(new RankedGrade(parents.student(2), 90.0), new RankedGrade(parents.student(3), 72.3));
+    }
+
+    @Test
+    void testCacheFollowsEnrollmentWrites() {
+        // given
+        Instructor instructor = instructorRepository.save(Instructor.builder().firstName("Max").lastName("Muster")
+                .email("max.muster@uni.de").department("Physik").build());
+        Course mechanics = saveCourse("Mechanik", instructor);
+        enroll(1L, mechanics, 60.0);
+        assertThat(analyticsService.ofCourse(mechanics.getId()).count()).isEqualTo(1);
+
+        // when
+        enroll(2L, mechanics, 95.0);
+
+        // then
+        assertThat(analyticsService.ofCourse(mechanics.getId()).count()).isEqualTo(2);
+        assertThat(analyticsService.topStudents(mechanics.getId(), 10)).first().isEqualTo(new RankedGrade(parents.student(2), 95.0));
+        assertThat(analyticsService.ofCourse(-1L)).isEqualTo(GradeDistribution.EMPTY);
+    }
+
+    @Test
+    void testChangesRecomputeOnlyTheirCourses() {
+        // given
+        Instructor instructor = instructorRepository.save(Instructor.builder().firstName("Eva").lastName("Beispiel")
+                .email("eva.beispiel@uni.de").department("Chemie").build());
+        Course organic = saveCourse("Organische Chemie", instructor);
+        Course inorganic = saveCourse("Anorganische Chemie", instructor);
+        enroll(1L, organic, 40.0);
+        enroll(1L, inorganic, 60.0);
+        assertThat(analyticsService.ofDepartment("Chemie").count()).isEqualTo(2);
+        // Bypasses the events, only a recomputation of the course would see it
+        jdbcTemplate.update("UPDATE enrollments SET grade = 100.0 WHERE course_id = ?", inorganic.getId());
+
+        // when
+        enroll(2L, organic, 80.0);
+
+        // then
+        assertThat(analyticsService.ofCourse(organic.getId()).count()).isEqualTo(2);
+        assertThat(analyticsService.ofCourse(inorganic.getId()).median()).isEqualTo(60.0);
+        assertThat(analyticsService.ofDepartment("Chemie").count()).isEqualTo(3);
+        assertThat(analyticsService.ofDepartment("Chemie").p90()).isEqualTo(80.0);
+    }
+
+    @Test
+    void testDepartmentChangesMoveTheCoursesOfTheInstructor() {
+        // given
+        Instructor instructor = instructorRepository.save(Instructor.builder().firstName("Karl").lastName("Probe")
+                .email("karl.probe@uni.de").department("Biologie").build());
+        Course genetics = saveCourse("Genetik", instructor);
+        enroll(1L, genetics, 70.0);
+        assertThat(analyticsService.byDepartment()).containsOnlyKeys("Biologie");
+
+        // when
+        instructor.setDepartment("Medizin");
+        instructorRepository.save(instructor);
+
+        // then
+        assertThat(analyticsService.byDepartment()).containsOnlyKeys("Medizin");
+        assertThat(analyticsService.ofDepartment("Medizin").count()).isEqualTo(1);
+        assertThat(analyticsService.ofCourse(genetics.getId()).count()).isEqualTo(1);
+    }
+
+    @Test
+    void testGradesOutOfRangeAreCountedSeparately() {
+        // given
+        Instructor instructor = instructorRepository.save(Instructor.builder().firstName("Ida").lastName("Test")
+                .email("ida.test@uni.de").department("Informatik").build());
+        Course databases = saveCourse("Datenbanken", instructor);
+        enroll(1L, databases, 75.0);
+        enroll(2L, databases, 80.0);
+        // Bypasses the validation
+        jdbcTemplate.update("UPDATE enrollments SET grade = 150.0 WHERE student_id = ?", parents.student(2));
+        enroll(3L, databases, 90.0);
+
+        // when
+        GradeDistribution course = analyticsService.ofCourse(databases.getId());
+
+        // then
+        assertThat(course.count()).isEqualTo(2);
+        assertThat(course.outOfRange()).isEqualTo(1);
+        assertThat(course.p90()).isEqualTo(90.0);
+        assertThat(analyticsService.ofDepartment("Informatik").outOfRange()).isEqualTo(1);
+        assertThat(analyticsService.topStudents(databases.getId(), 1))
+                .containsExactly(new RankedGrade(parents.student(3), 90.0));
+    }
+}
@@ -0,0 +1,70 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradeHistogramTest {
+
+    @Test
+    void testPercentiles() {
+        // given
+        GradeHistogram histogram = new GradeHistogram();
+        for (int grade = 1; grade <= 100; grade++) {
+            histogram.add(grade);
+        }
+
+        // then
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.percentile(0.5)).isEqualTo(50.0);
+        assertThat(histogram.percentile(0.9)).isEqualTo(90.0);
+        assertThat(histogram.percentile(0)).isEqualTo(1.0);
+        assertThat(histogram.percentile(1)).isEqualTo(100.0);
+    }
+
+    @Test
+    void testBuckets() {
+        // given
+        GradeHistogram histogram = new GradeHistogram();
+        histogram.add(72.2);
+        histogram.add(72.4);
+        histogram.add(72.5);
+        histogram.add(100.0);
+
+        // then
+        assertThat(histogram.buckets()).containsExactly(
+                new GradeHistogram.Bucket(72.0, 72.5, 2),
+                new GradeHistogram.Bucket(72.5, 73.0, 1),
+                new GradeHistogram.Bucket(100.0, 100.0, 1));
+    }
+
+    @Test
+    void testInvalidInput() {
+        // given
+        GradeHistogram histogram = new GradeHistogram();
+
+        // then
+        assertThat(histogram.percentile(0.5)).isNull();
+        assertThatThrownBy(() -> histogram.percentile(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testGradesOutOfRangeAreCounted() {
+        // given
+        GradeHistogram histogram = new GradeHistogram();
+        histogram.add(80.0);
+        histogram.add(100.5);
+        histogram.add(-1.0);
+        histogram.add(Double.NaN);
+        GradeHistogram merged = new GradeHistogram();
+        merged.addAll(histogram);
+
+        // then
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.outOfRange()).isEqualTo(3);
+        assertThat(histogram.buckets()).containsExactly(new GradeHistogram.Bucket(80.0, 80.5, 1));
+        assertThat(histogram.percentile(1)).isEqualTo(80.0);
+        assertThat(merged.outOfRange()).isEqualTo(3);
+    }
+}
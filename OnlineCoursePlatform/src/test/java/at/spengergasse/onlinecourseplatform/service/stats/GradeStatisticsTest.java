@@ -0,0 +1,226 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import at.spengergasse.onlinecourseplatform.domain.Enrollment;
+import at.spengergasse.onlinecourseplatform.persistence.CourseRepository;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentParents;
+import at.spengergasse.onlinecourseplatform.persistence.EnrollmentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.StudentRepository;
+import at.spengergasse.onlinecourseplatform.persistence.events.EnrollmentsChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.EntityChangedEvent;
+import at.spengergasse.onlinecourseplatform.persistence.events.TableChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "seeder.enabled=false")
+class GradeStatisticsTest {
+
+    @Autowired
+    private GradeStatistics gradeStatistics;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ApplicationEventMulticaster eventMulticaster;
+
+    private EnrollmentParents parents;
+
+    @BeforeEach
+    void setUp() {
+        parents = new EnrollmentParents(studentRepository, courseRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        parents.deleteAll();
+        gradeStatistics.rebuild();
+    }
+
+    private Enrollment saveEnrollment(long student, long course, Double grade) {
+        return enrollmentRepository.save(Enrollment.builder().studentId(parents.student(student))
+                .courseId(parents.course(course)).grade(grade).build());
+    }
+
+    @Test
+    void testStatisticsFollowEnrollmentWrites() {
+        // given
+        saveEnrollment(1L, 10L, 60.0);
+        Enrollment top = saveEnrollment(2L, 10L, 90.0);
+        Enrollment moved = saveEnrollment(4L, 20L, 75.0);
+        saveEnrollment(3L, 10L, null);
+
+        // then
+        assertThat(gradeStatistics.ofCourse(parents.course(10)).count()).isEqualTo(2);
+        assertThat(gradeStatistics.ofCourse(parents.course(10)).average())
+                .isCloseTo(enrollmentRepository.calculateAverageGradeByCourseId(parents.course(10)), within(1e-9));
+        assertThat(gradeStatistics.ofStudent(parents.student(1)).average())
+                .isCloseTo(enrollmentRepository.calculateAverageGradeByStudentId(parents.student(1)), within(1e-9));
+
+        // when
+        moved.setCourseId(parents.course(10));
+        moved.setGrade(80.0);
+        enrollmentRepository.save(moved);
+
+        // then
+        assertThat(gradeStatistics.ofCourse(parents.course(20))).isEqualTo(GradeStats.EMPTY);
+        assertThat(gradeStatistics.ofCourse(parents.course(10)).count()).isEqualTo(3);
+        assertThat(gradeStatistics.ofCourse(parents.course(10)).average())
+                .isCloseTo(enrollmentRepository.calculateAverageGradeByCourseId(parents.course(10)), within(1e-9));
+        assertThat(gradeStatistics.ofStudent(parents.student(4)).average()).isCloseTo(80.0, within(1e-9));
+
+        // when
+        enrollmentRepository.delete(top);
+
+        // then
+        GradeStats course = gradeStatistics.ofCourse(parents.course(10));
+        assertThat(course.count()).isEqualTo(2);
+        assertThat(course.max()).isEqualTo(80.0);
+        assertThat(course.min()).isEqualTo(60.0);
+        assertThat(course.variance()).isCloseTo(100.0, within(1e-9));
+        assertThat(gradeStatistics.ofStudent(parents.student(2))).isEqualTo(GradeStats.EMPTY);
+    }
+
+    @Test
+    void testRebuildRepairsDrift() {
+        // given
+        saveEnrollment(1L, 10L, 50.0);
+        saveEnrollment(2L, 10L, 70.0);
+        jdbcTemplate.update("UPDATE enrollments SET grade = 100.0 WHERE student_id = ?", parents.student(1));
+
+        // when
+        gradeStatistics.rebuild();
+
+        // then
+        assertThat(gradeStatistics.ofCourse(parents.course(10)).average())
+                .isCloseTo(enrollmentRepository.calculateAverageGradeByCourseId(parents.course(10)), within(1e-9));
+        assertThat(gradeStatistics.ofCourse(parents.course(10)).max()).isEqualTo(100.0);
+        assertThat(gradeStatistics.ofStudent(parents.student(1)).average()).isCloseTo(100.0, within(1e-9));
+    }
+
+    @Test
+    void testTableChangesRebuildInTheBackground() {
+        // given
+        saveEnrollment(1L, 10L, 50.0);
+        jdbcTemplate.update("UPDATE enrollments SET grade = 90.0 WHERE student_id = ?", parents.student(1));
+
+        // when
+        eventPublisher.publishEvent(new TableChangedEvent("enrollments"));
+
+        // then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(gradeStatistics.ofCourse(parents.course(10)).average()).isCloseTo(90.0, within(1e-9)));
+    }
+
+    @Test
+    void testWritesDuringRebuildsAreNotLost() throws Exception {
+        // given
+        for (long student = 1; student <= 20; student++) {
+            parents.student(student);
+        }
+        long course = parents.course(10);
+        Future<?> rebuilds;
+
+        // when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            rebuilds = executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    gradeStatistics.rebuild();
+                }
+            });
+            for (long student = 1; student <= 20; student++) {
+                saveEnrollment(student, 10L, (double) student);
+            }
+        }
+        rebuilds.get();
+
+        // then
+        GradeStats stats = gradeStatistics.ofCourse(course);
+        assertThat(stats.count()).isEqualTo(20);
+        assertThat(stats.average())
+                .isCloseTo(enrollmentRepository.calculateAverageGradeByCourseId(course), within(1e-9));
+        assertThat(stats.min()).isEqualTo(1.0);
+        assertThat(stats.max()).isEqualTo(20.0);
+    }
+
+    @Test
+    void testReloadsOfCommittedWritesNotYetAppliedAreNotCountedTwice() {
+        // given
+        saveEnrollment(1L, 10L, 60.0);
+        long course = parents.course(10);
+        eventPublisher.publishEvent(new EnrollmentsChangedEvent(EntityChangedEvent.ChangeType.UPDATED, Set.of(course),
+                Set.of()));
+        List<GradeStats> readBeforeApplied = new ArrayList<>();
+        // Reads the stale aggregate after the insert committed, before the statistics apply it
+        ApplicationListener<ApplicationEvent> reader = new OrderedListener(event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof EntityChangedEvent changed && changed.concerns(Enrollment.class)) {
+                readBeforeApplied.add(gradeStatistics.ofCourse(course));
+            }
+        });
+        eventMulticaster.addApplicationListener(reader);
+
+        // when
+        try {
+            saveEnrollment(2L, 10L, 90.0);
+        } finally {
+            eventMulticaster.removeApplicationListener(reader);
+        }
+
+        // then
+        // The reload found the insert pending and kept the aggregate stale instead of storing it
+        assertThat(readBeforeApplied).extracting(GradeStats::count).containsExactly(1L);
+        GradeStats stats = gradeStatistics.ofCourse(course);
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(stats.average()).isCloseTo(75.0, within(1e-9));
+        assertThat(stats.max()).isEqualTo(90.0);
+    }
+
+    private record OrderedListener(ApplicationListener<ApplicationEvent> delegate)
+            implements ApplicationListener<ApplicationEvent>, Ordered {
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            delegate.onApplicationEvent(event);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package at.spengergasse.onlinecourseplatform.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GradeStatsTest {
+
+    @Test
+    void testAverageAndVariance() {
+        // given
+        GradeStats stats = GradeStats.EMPTY.add(70).add(80).add(90);
+
+        // then
+        assertThat(stats.count()).isEqualTo(3);
+        assertThat(stats.average()).isCloseTo(80.0, within(1e-9));
+        assertThat(stats.variance()).isCloseTo(200.0 / 3, within(1e-9));
+        assertThat(stats.min()).isEqualTo(70.0);
+        assertThat(stats.max()).isEqualTo(90.0);
+    }
+
+    @Test
+    void testRemoveKeepsExtremes() {
+        // given
+        GradeStats stats = GradeStats.EMPTY.add(70).add(80).add(90);
+
+        // when
+        GradeStats removed = stats.remove(90);
+
+        // then
+        assertThat(stats.isExtreme(90)).isTrue();
+        assertThat(stats.isExtreme(80)).isFalse();
+        assertThat(removed.count()).isEqualTo(2);
+        assertThat(removed.average()).isCloseTo(75.0, within(1e-9));
+        assertThat(removed.variance()).isCloseTo(25.0, within(1e-9));
+    }
+
+    @Test
+    void testEmpty() {
+        // when
+        GradeStats stats = GradeStats.EMPTY.add(55).remove(55);
+
+        // then
+        assertThat(stats).isEqualTo(GradeStats.EMPTY);
+        assertThat(stats.average()).isNull();
+        assertThat(stats.variance()).isNull();
+        assertThat(stats.standardDeviation()).isNull();
+    }
+}